@@ -25,6 +25,7 @@
 package com.github.juliarn.npclib.api;
 
 import com.github.juliarn.npclib.api.util.Util;
+import java.util.Objects;
 import org.jetbrains.annotations.NotNull;
 
 final class DefaultPosition implements Position {
@@ -106,4 +107,19 @@ public int chunkY() {
   public int chunkZ() {
     return this.blockZ() >> 4;
   }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.x, this.y, this.z, this.yaw, this.pitch, this.worldId);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return Util.equals(Position.class, this, obj, (orig, comp) -> Double.compare(orig.x(), comp.x()) == 0
+      && Double.compare(orig.y(), comp.y()) == 0
+      && Double.compare(orig.z(), comp.z()) == 0
+      && Float.compare(orig.yaw(), comp.yaw()) == 0
+      && Float.compare(orig.pitch(), comp.pitch()) == 0
+      && orig.worldId().equals(comp.worldId()));
+  }
 }
@@ -46,6 +46,7 @@
   NpcFlag<Boolean> LOOK_AT_PLAYER = NpcFlag.flag("imitate_player_look", false);
   NpcFlag<Boolean> HIT_WHEN_PLAYER_HITS = NpcFlag.flag("imitate_player_hit", false);
   NpcFlag<Boolean> SNEAK_WHEN_PLAYER_SNEAKS = NpcFlag.flag("imitate_player_sneak", false);
+  NpcFlag<Integer> SPAWN_PRIORITY = NpcFlag.flag("spawn_priority", 0);
 
   int entityId();
 
@@ -35,6 +35,14 @@ public interface NpcActionController extends NpcFlaggedObject {
   NpcFlag<Integer> SPAWN_DISTANCE = NpcFlag.flag("action_spawn_distance", 50, value -> value >= 0);
   NpcFlag<Integer> TAB_REMOVAL_TICKS = NpcFlag.flag("action_tab_removal", 30, value -> value >= 0);
   NpcFlag<Integer> IMITATE_DISTANCE = NpcFlag.flag("action_imitate_distance", 20, value -> value >= 0);
+  NpcFlag<Integer> ROTATION_INTERVAL = NpcFlag.flag("action_rotation_interval", 1, value -> value >= 0);
+  // npcs between the imitate distance and this distance still look at the player, but only every few ticks (based on
+  // the mid rotation interval). values above the imitate distance widen the range in which npcs look at the player,
+  // values below it have no effect. the default keeps the look-at range at the imitate distance
+  NpcFlag<Integer> LOD_MID_DISTANCE = NpcFlag.flag("action_lod_mid_distance", 20, value -> value >= 0);
+  NpcFlag<Integer> LOD_MID_ROTATION_INTERVAL = NpcFlag.flag("action_lod_mid_rotation_interval", 10, value -> value > 0);
+  NpcFlag<Integer> MAX_SPAWNS_PER_TICK = NpcFlag.flag("action_max_spawns_per_tick", 10, value -> value > 0);
+  NpcFlag<Integer> MAX_VISIBLE_NPCS = NpcFlag.flag("action_max_visible_npcs", Integer.MAX_VALUE, value -> value > 0);
 
   interface Builder extends NpcFlaggedBuilder<Builder> {
 
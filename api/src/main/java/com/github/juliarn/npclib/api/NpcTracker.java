@@ -24,7 +24,9 @@
 
 package com.github.juliarn.npclib.api;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -42,4 +44,15 @@
 
   @UnmodifiableView
   @NotNull Collection<Npc<W, P, I, E>> trackedNpcs();
+
+  default @NotNull Collection<Npc<W, P, I, E>> trackedNpcs(@NotNull W world) {
+    List<Npc<W, P, I, E>> worldNpcs = new ArrayList<>();
+    for (Npc<W, P, I, E> npc : this.trackedNpcs()) {
+      if (npc.world().equals(world)) {
+        worldNpcs.add(npc);
+      }
+    }
+
+    return worldNpcs;
+  }
 }
@@ -35,4 +35,13 @@ public interface PlatformTaskManager {
   void scheduleAsync(@NotNull Runnable task);
 
   void scheduleDelayedAsync(@NotNull Runnable task, int delayTicks);
+
+  default void scheduleForNpc(@NotNull Npc<?, ?, ?, ?> npc, @NotNull Runnable task) {
+    // platforms without regionized threading run npc related tasks on the main thread
+    this.scheduleSync(task);
+  }
+
+  default void scheduleDelayedForNpc(@NotNull Npc<?, ?, ?, ?> npc, @NotNull Runnable task, int delayTicks) {
+    this.scheduleDelayedSync(task, delayTicks);
+  }
 }
@@ -46,7 +46,7 @@ public final class DefaultResolvedProfile implements Profile.Resolved {
   ) {
     this.name = name;
     this.uniqueId = uniqueId;
-    this.properties = properties.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(properties);
+    this.properties = ProfileInterner.internProperties(properties);
   }
 
   private DefaultResolvedProfile(
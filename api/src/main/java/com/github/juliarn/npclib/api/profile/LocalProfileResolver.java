@@ -0,0 +1,258 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.api.profile;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+final class LocalProfileResolver implements ProfileResolver {
+
+  private static final String PROFILE_FILE_SUFFIX = ".json";
+  private static final long RELOAD_CHECK_INTERVAL = TimeUnit.SECONDS.toMillis(5);
+
+  // a single daemon thread checks the sources of all local resolvers for changes, the resolving
+  // threads only read the current index and never touch the file system
+  private static final ScheduledExecutorService RELOAD_EXECUTOR = Executors.newSingleThreadScheduledExecutor(task -> {
+    Thread thread = new Thread(task, "npc-lib-local-profile-reload");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final Path source;
+  private final ProfileResolver fallback;
+
+  private volatile ProfileIndex index;
+
+  public LocalProfileResolver(@NotNull Path source, @Nullable ProfileResolver fallback) {
+    this.source = source;
+    this.fallback = fallback;
+
+    // load the initial index eagerly, a broken source should be noticed on startup
+    try {
+      this.index = ProfileIndex.load(source);
+    } catch (IOException exception) {
+      throw new UncheckedIOException("Unable to load local profiles from " + source, exception);
+    } catch (RuntimeException exception) {
+      throw new IllegalArgumentException("Malformed local profiles in " + source, exception);
+    }
+
+    // the reload task only weakly references this resolver, the task cancels itself once this
+    // resolver is no longer in use
+    ReloadTask reloadTask = new ReloadTask(this);
+    reloadTask.future = RELOAD_EXECUTOR.scheduleWithFixedDelay(
+      reloadTask,
+      RELOAD_CHECK_INTERVAL,
+      RELOAD_CHECK_INTERVAL,
+      TimeUnit.MILLISECONDS);
+  }
+
+  private static @NotNull Map<Path, Long> collectSourceFiles(@NotNull Path source) throws IOException {
+    // a single file is treated as a pack which contains all profiles
+    if (!Files.isDirectory(source)) {
+      return Collections.singletonMap(source, Files.getLastModifiedTime(source).toMillis());
+    }
+
+    // collect all profile files in the given directory
+    Map<Path, Long> files = new HashMap<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(source, "*" + PROFILE_FILE_SUFFIX)) {
+      for (Path file : stream) {
+        if (Files.isRegularFile(file)) {
+          files.put(file, Files.getLastModifiedTime(file).toMillis());
+        }
+      }
+    }
+
+    return files;
+  }
+
+  private static @Nullable Profile.Resolved parseProfile(@NotNull JsonElement element) {
+    if (!element.isJsonObject()) {
+      return null;
+    }
+
+    // ensure that the required values are present
+    JsonObject object = element.getAsJsonObject();
+    if (!object.has("id") || !object.has("name")) {
+      return null;
+    }
+
+    // parse the properties of the profile, if present
+    Set<ProfileProperty> properties = Collections.emptySet();
+    if (object.has("properties")) {
+      properties = MojangProfileResolver.GSON.fromJson(
+        object.get("properties"),
+        MojangProfileResolver.PROFILE_PROPERTIES_TYPE);
+    }
+
+    // the unique id is either given with or without dashes
+    String name = object.get("name").getAsString();
+    String rawUniqueId = object.get("id").getAsString();
+    UUID uniqueId = MojangProfileResolver.parseUniqueId(rawUniqueId);
+
+    return Profile.resolved(name, uniqueId, properties);
+  }
+
+  @Override
+  public @NotNull CompletableFuture<Profile.Resolved> resolveProfile(@NotNull Profile profile) {
+    ProfileIndex index = this.index;
+
+    // check if the profile is known by its unique id
+    UUID uniqueId = profile.uniqueId();
+    if (uniqueId != null) {
+      Profile.Resolved resolved = index.profilesById.get(uniqueId);
+      if (resolved != null) {
+        return CompletableFuture.completedFuture(resolved);
+      }
+    }
+
+    // check if the profile is known by its name
+    String name = profile.name();
+    if (name != null) {
+      Profile.Resolved resolved = index.profilesByName.get(name.toLowerCase(Locale.ROOT));
+      if (resolved != null) {
+        return CompletableFuture.completedFuture(resolved);
+      }
+    }
+
+    // try to resolve the profile using the fallback resolver, if given
+    if (this.fallback != null) {
+      return this.fallback.resolveProfile(profile);
+    }
+
+    // unable to resolve the profile locally
+    Object profileKey = uniqueId == null ? name : uniqueId;
+    CompletableFuture<Profile.Resolved> future = new CompletableFuture<>();
+    future.completeExceptionally(new IllegalArgumentException("No local profile present for " + profileKey));
+    return future;
+  }
+
+  private void reloadIfChanged() {
+    try {
+      // only reload the profiles if any of the source files changed, the new index is swapped
+      // in at once so that resolving threads either see the old or the new profiles
+      Map<Path, Long> files = collectSourceFiles(this.source);
+      if (!files.equals(this.index.sourceFiles)) {
+        this.index = ProfileIndex.load(this.source);
+      }
+    } catch (IOException | RuntimeException ignored) {
+      // the source is (temporarily) not readable or a file is malformed (for example while it is
+      // being written), keep the old profiles and retry on the next reload check
+    }
+  }
+
+  private static final class ReloadTask implements Runnable {
+
+    private final WeakReference<LocalProfileResolver> resolver;
+    private volatile ScheduledFuture<?> future;
+
+    private ReloadTask(@NotNull LocalProfileResolver resolver) {
+      this.resolver = new WeakReference<>(resolver);
+    }
+
+    @Override
+    public void run() {
+      LocalProfileResolver resolver = this.resolver.get();
+      if (resolver != null) {
+        resolver.reloadIfChanged();
+        return;
+      }
+
+      // the resolver was garbage collected, stop checking its source
+      ScheduledFuture<?> future = this.future;
+      if (future != null) {
+        future.cancel(false);
+      }
+    }
+  }
+
+  private static final class ProfileIndex {
+
+    private final Map<Path, Long> sourceFiles;
+    private final Map<UUID, Profile.Resolved> profilesById;
+    private final Map<String, Profile.Resolved> profilesByName;
+
+    private ProfileIndex(
+      @NotNull Map<Path, Long> sourceFiles,
+      @NotNull Map<UUID, Profile.Resolved> profilesById,
+      @NotNull Map<String, Profile.Resolved> profilesByName
+    ) {
+      this.sourceFiles = sourceFiles;
+      this.profilesById = profilesById;
+      this.profilesByName = profilesByName;
+    }
+
+    private static @NotNull ProfileIndex load(@NotNull Path source) throws IOException {
+      Map<Path, Long> sourceFiles = collectSourceFiles(source);
+      Map<UUID, Profile.Resolved> profilesById = new HashMap<>();
+      Map<String, Profile.Resolved> profilesByName = new HashMap<>();
+
+      for (Path file : sourceFiles.keySet()) {
+        JsonElement content;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+          content = MojangProfileResolver.GSON.fromJson(reader, JsonElement.class);
+        }
+
+        // a file either contains a single profile or an array of profiles
+        if (content == null) {
+          continue;
+        }
+
+        Iterable<JsonElement> elements = content.isJsonArray()
+          ? content.getAsJsonArray()
+          : Collections.singleton(content);
+        for (JsonElement element : elements) {
+          Profile.Resolved profile = parseProfile(element);
+          if (profile != null) {
+            profilesById.put(profile.uniqueId(), profile);
+            profilesByName.put(profile.name().toLowerCase(Locale.ROOT), profile);
+          }
+        }
+      }
+
+      return new ProfileIndex(sourceFiles, profilesById, profilesByName);
+    }
+  }
+}
@@ -24,6 +24,7 @@
 
 package com.github.juliarn.npclib.api.profile;
 
+import com.github.juliarn.npclib.api.util.BlockingTaskExecutor;
 import com.github.juliarn.npclib.api.util.Util;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -55,11 +56,11 @@ final class MojangProfileResolver implements ProfileResolver {
 
   private static final int DEFAULT_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(10);
 
-  private static final Gson GSON = new GsonBuilder()
+  static final Gson GSON = new GsonBuilder()
     .disableHtmlEscaping()
     .registerTypeAdapter(ProfileProperty.class, new ProfilePropertyTypeAdapter())
     .create();
-  private static final Type PROFILE_PROPERTIES_TYPE = TypeFactory.parameterizedClass(Set.class, ProfileProperty.class);
+  static final Type PROFILE_PROPERTIES_TYPE = TypeFactory.parameterizedClass(Set.class, ProfileProperty.class);
 
   private static final Pattern UUID_NO_DASH_PATTERN = Pattern.compile("-", Pattern.LITERAL);
   private static final Pattern UUID_DASHER_PATTERN = Pattern.compile("(\\w{8})(\\w{4})(\\w{4})(\\w{4})(\\w{12})");
@@ -109,6 +110,12 @@ final class MojangProfileResolver implements ProfileResolver {
     throw new IllegalStateException("Endpoint request redirected more than 10 times!");
   }
 
+  static @NotNull UUID parseUniqueId(@NotNull String rawUniqueId) {
+    // insert dashes into the unique id string we get to parse it
+    String dashedId = UUID_DASHER_PATTERN.matcher(rawUniqueId).replaceAll("$1-$2-$3-$4-$5");
+    return UUID.fromString(dashedId);
+  }
+
   private static @NotNull HttpURLConnection createBaseConnection(@NotNull String endpoint) throws IOException {
     HttpURLConnection connection = (HttpURLConnection) new URL(endpoint).openConnection();
 
@@ -131,7 +138,7 @@ final class MojangProfileResolver implements ProfileResolver {
 
   @Override
   public @NotNull CompletableFuture<Profile.Resolved> resolveProfile(@NotNull Profile profile) {
-    return CompletableFuture.supplyAsync(Util.callableToSupplier(() -> {
+    return BlockingTaskExecutor.supplyAsync(Util.callableToSupplier(() -> {
       // check if we need to resolve the uuid of the profile
       UUID uniqueId = profile.uniqueId();
       if (uniqueId == null) {
@@ -139,9 +146,7 @@ final class MojangProfileResolver implements ProfileResolver {
         JsonObject responseData = makeRequest(String.format(NAME_TO_UUID_ENDPOINT, profile.name()));
         String rawUniqueId = responseData.get("id").getAsString();
 
-        // insert dashes into the unique id string we get to parse it
-        String dashedId = UUID_DASHER_PATTERN.matcher(rawUniqueId).replaceAll("$1-$2-$3-$4-$5");
-        uniqueId = UUID.fromString(dashedId);
+        uniqueId = parseUniqueId(rawUniqueId);
       }
 
       // now as the unique id is present we can send the request to get the all the other information about the profile
@@ -38,7 +38,7 @@ public interface ProfileProperty {
     Objects.requireNonNull(name, "name");
     Objects.requireNonNull(value, "value");
 
-    return new DefaultProfileProperty(name, value, signature);
+    return ProfileInterner.internProperty(new DefaultProfileProperty(name, value, signature));
   }
 
   @NotNull String name();
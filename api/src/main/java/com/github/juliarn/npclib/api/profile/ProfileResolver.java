@@ -24,6 +24,7 @@
 
 package com.github.juliarn.npclib.api.profile;
 
+import java.nio.file.Path;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -42,6 +43,17 @@ public interface ProfileResolver {
     return new DefaultCachedProfileResolver(delegate);
   }
 
+  static @NotNull ProfileResolver local(@NotNull Path source) {
+    Objects.requireNonNull(source, "source");
+    return new LocalProfileResolver(source, null);
+  }
+
+  static @NotNull ProfileResolver local(@NotNull Path source, @NotNull ProfileResolver fallback) {
+    Objects.requireNonNull(source, "source");
+    Objects.requireNonNull(fallback, "fallback");
+    return new LocalProfileResolver(source, fallback);
+  }
+
   @NotNull CompletableFuture<Profile.Resolved> resolveProfile(@NotNull Profile profile);
 
   interface Cached extends ProfileResolver {
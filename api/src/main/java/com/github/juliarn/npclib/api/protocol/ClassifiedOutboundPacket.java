@@ -0,0 +1,59 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.api.protocol;
+
+import com.github.juliarn.npclib.api.Npc;
+import com.github.juliarn.npclib.api.protocol.enums.PacketImportance;
+import java.util.Collection;
+import org.jetbrains.annotations.NotNull;
+
+final class ClassifiedOutboundPacket<W, P, I, E> implements OutboundPacket<W, P, I, E> {
+
+  private final PacketImportance importance;
+  private final OutboundPacket<W, P, I, E> outboundPacket;
+
+  public ClassifiedOutboundPacket(
+    @NotNull PacketImportance importance,
+    @NotNull OutboundPacket<W, P, I, E> outboundPacket
+  ) {
+    this.importance = importance;
+    this.outboundPacket = outboundPacket;
+  }
+
+  @Override
+  public void schedule(@NotNull P player, @NotNull Npc<W, P, I, E> npc) {
+    this.outboundPacket.schedule(player, npc);
+  }
+
+  @Override
+  public void schedule(@NotNull Collection<P> players, @NotNull Npc<W, P, I, E> npc) {
+    this.outboundPacket.schedule(players, npc);
+  }
+
+  @Override
+  public @NotNull PacketImportance importance() {
+    return this.importance;
+  }
+}
@@ -25,15 +25,31 @@
 package com.github.juliarn.npclib.api.protocol;
 
 import com.github.juliarn.npclib.api.Npc;
+import com.github.juliarn.npclib.api.protocol.enums.PacketImportance;
 import java.util.Collection;
+import java.util.Objects;
 import java.util.function.Function;
 import org.jetbrains.annotations.NotNull;
 
 @FunctionalInterface
 public interface OutboundPacket<W, P, I, E> {
 
+  static @NotNull <W, P, I, E> OutboundPacket<W, P, I, E> withImportance(
+    @NotNull PacketImportance importance,
+    @NotNull OutboundPacket<W, P, I, E> packet
+  ) {
+    Objects.requireNonNull(importance, "importance");
+    Objects.requireNonNull(packet, "packet");
+
+    return new ClassifiedOutboundPacket<>(importance, packet);
+  }
+
   void schedule(@NotNull P player, @NotNull Npc<W, P, I, E> npc);
 
+  default @NotNull PacketImportance importance() {
+    return PacketImportance.ESSENTIAL;
+  }
+
   default void scheduleForTracked(@NotNull Npc<W, P, I, E> npc) {
     this.schedule(Npc::trackedPlayers, npc);
   }
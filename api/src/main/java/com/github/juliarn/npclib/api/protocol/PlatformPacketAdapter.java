@@ -28,7 +28,10 @@
 import com.github.juliarn.npclib.api.protocol.enums.EntityAnimation;
 import com.github.juliarn.npclib.api.protocol.enums.ItemSlot;
 import com.github.juliarn.npclib.api.protocol.enums.PlayerInfoAction;
+import com.github.juliarn.npclib.api.protocol.meta.EntityMetadata;
 import com.github.juliarn.npclib.api.protocol.meta.EntityMetadataFactory;
+import java.util.Collection;
+import java.util.Map;
 import org.jetbrains.annotations.NotNull;
 
 public interface PlatformPacketAdapter<W, P, I, E> {
@@ -45,10 +48,19 @@
 
   @NotNull OutboundPacket<W, P, I, E> createEquipmentPacket(@NotNull ItemSlot slot, @NotNull I item);
 
+  @NotNull OutboundPacket<W, P, I, E> createEquipmentPacket(@NotNull Map<ItemSlot, I> items);
+
   @NotNull OutboundPacket<W, P, I, E> createCustomPayloadPacket(@NotNull String channelId, byte[] payload);
 
   @NotNull <T, O> OutboundPacket<W, P, I, E> createEntityMetaPacket(
     @NotNull EntityMetadataFactory<T, O> metadata, @NotNull T value);
 
+  @NotNull OutboundPacket<W, P, I, E> createEntityMetaPacket(@NotNull Collection<EntityMetadata<?>> metadata);
+
+  // checks if cosmetic packets should be sent to the given player, returns false if the client is not able to keep up
+  default boolean shouldSendCosmeticPackets(@NotNull P player) {
+    return true;
+  }
+
   void initialize(@NotNull Platform<W, P, I, E> platform);
 }
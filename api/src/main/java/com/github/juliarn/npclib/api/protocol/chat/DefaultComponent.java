@@ -24,6 +24,8 @@
 
 package com.github.juliarn.npclib.api.protocol.chat;
 
+import com.github.juliarn.npclib.api.util.Util;
+import java.util.Objects;
 import org.jetbrains.annotations.Nullable;
 
 final class DefaultComponent implements Component {
@@ -45,4 +47,15 @@ public DefaultComponent(@Nullable String rawMessage, @Nullable String jsonEncode
   public @Nullable String encodedJsonMessage() {
     return this.jsonEncodedMessage;
   }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.rawMessage, this.jsonEncodedMessage);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return Util.equals(Component.class, this, obj, (orig, comp) -> Objects.equals(orig.rawMessage(), comp.rawMessage())
+      && Objects.equals(orig.encodedJsonMessage(), comp.encodedJsonMessage()));
+  }
 }
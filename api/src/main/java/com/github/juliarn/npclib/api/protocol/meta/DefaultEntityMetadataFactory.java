@@ -26,8 +26,10 @@
 
 import com.github.juliarn.npclib.api.PlatformVersionAccessor;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.function.Function;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
@@ -43,6 +45,9 @@
   private final Collection<EntityMetadataFactory<I, Object>> relatedMetadata;
   private final Function<PlatformVersionAccessor, Boolean> availabilityChecker;
 
+  // the plan compiled for the last used version accessor, normally there is only one accessor per platform
+  private volatile CompiledPlan<I> compiledPlan;
+
   public DefaultEntityMetadataFactory(
     int baseIndex,
     int[] indexShitVersions,
@@ -65,17 +70,32 @@ public DefaultEntityMetadataFactory(
     return this.relatedMetadata;
   }
 
+  @Override
+  @Unmodifiable
+  public @NotNull Collection<EntityMetadataFactory<I, Object>> relatedMetadata(
+    @NotNull PlatformVersionAccessor versionAccessor
+  ) {
+    return this.compiledPlan(versionAccessor).relatedMetadata;
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public @NotNull EntityMetadata<O> create(@NotNull I input, @NotNull PlatformVersionAccessor versionAccessor) {
     // check if the meta is available
-    if (this.availabilityChecker.apply(versionAccessor)) {
+    CompiledPlan<I> plan = this.compiledPlan(versionAccessor);
+    if (plan.available) {
       // try to convert the given input value
       O value = this.inputConverter.apply(input);
       if (value != null) {
-        // calculate the index & create the meta
-        int index = this.baseIndex + this.calcIndexShift(versionAccessor);
-        return new AvailableEntityMetadata<>(index, value, this.type);
+        // the metadata is immutable, re-use the one created for the last value if the value didn't change
+        AvailableEntityMetadata<?> lastMetadata = plan.lastMetadata;
+        if (lastMetadata != null && value.equals(lastMetadata.value)) {
+          return (EntityMetadata<O>) lastMetadata;
+        }
+
+        AvailableEntityMetadata<O> metadata = new AvailableEntityMetadata<>(plan.index, value, this.type);
+        plan.lastMetadata = metadata;
+        return metadata;
       }
     }
 
@@ -83,6 +103,31 @@ public DefaultEntityMetadataFactory(
     return (EntityMetadata<O>) UnavailableEntityMetadata.INSTANCE;
   }
 
+  private @NotNull CompiledPlan<I> compiledPlan(@NotNull PlatformVersionAccessor versionAccessor) {
+    // check if the plan was already compiled for the given accessor
+    CompiledPlan<I> plan = this.compiledPlan;
+    if (plan != null && plan.versionAccessor == versionAccessor) {
+      return plan;
+    }
+
+    // resolve the availability and the final index for the version
+    boolean available = this.availabilityChecker.apply(versionAccessor);
+    int index = this.baseIndex + this.calcIndexShift(versionAccessor);
+
+    // only keep the related metadata which is available for the version
+    List<EntityMetadataFactory<I, Object>> relatedMetadata = new ArrayList<>(this.relatedMetadata.size());
+    for (EntityMetadataFactory<I, Object> related : this.relatedMetadata) {
+      if (!(related instanceof DefaultEntityMetadataFactory<?, ?>)
+        || ((DefaultEntityMetadataFactory<?, ?>) related).compiledPlan(versionAccessor).available) {
+        relatedMetadata.add(related);
+      }
+    }
+
+    plan = new CompiledPlan<>(versionAccessor, available, index, Collections.unmodifiableList(relatedMetadata));
+    this.compiledPlan = plan;
+    return plan;
+  }
+
   private int calcIndexShift(@NotNull PlatformVersionAccessor versionAccessor) {
     int shift = 0;
     for (int version : this.indexShitVersions) {
@@ -93,6 +138,30 @@ private int calcIndexShift(@NotNull PlatformVersionAccessor versionAccessor) {
     return shift;
   }
 
+  private static final class CompiledPlan<I> {
+
+    private final PlatformVersionAccessor versionAccessor;
+
+    private final boolean available;
+    private final int index;
+    private final Collection<EntityMetadataFactory<I, Object>> relatedMetadata;
+
+    // the metadata created for the last value, racing updates only cause an additional allocation
+    private volatile AvailableEntityMetadata<?> lastMetadata;
+
+    private CompiledPlan(
+      @NotNull PlatformVersionAccessor versionAccessor,
+      boolean available,
+      int index,
+      @NotNull Collection<EntityMetadataFactory<I, Object>> relatedMetadata
+    ) {
+      this.versionAccessor = versionAccessor;
+      this.available = available;
+      this.index = index;
+      this.relatedMetadata = relatedMetadata;
+    }
+  }
+
   private static final class AvailableEntityMetadata<O> implements EntityMetadata<O> {
 
     private final int index;
@@ -53,6 +53,13 @@
   @Unmodifiable
   @NotNull Collection<EntityMetadataFactory<I, Object>> relatedMetadata();
 
+  @Unmodifiable
+  default @NotNull Collection<EntityMetadataFactory<I, Object>> relatedMetadata(
+    @NotNull PlatformVersionAccessor versionAccessor
+  ) {
+    return this.relatedMetadata();
+  }
+
   @NotNull EntityMetadata<O> create(@NotNull I input, @NotNull PlatformVersionAccessor versionAccessor);
 
   interface Builder<I, O> {
@@ -0,0 +1,125 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.api.settings;
+
+import com.github.juliarn.npclib.api.Npc;
+import com.github.juliarn.npclib.api.profile.Profile;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+
+final class DefaultCachedNpcProfileResolver<P> implements NpcProfileResolver.Cached<P> {
+
+  private final NpcProfileResolver<P> delegate;
+
+  // player -> (npc entity id -> resolved profile)
+  private final Map<P, Map<Integer, CompletableFuture<Profile.Resolved>>> cache = new ConcurrentHashMap<>();
+
+  public DefaultCachedNpcProfileResolver(@NotNull NpcProfileResolver<P> delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public @NotNull CompletableFuture<Profile.Resolved> resolveNpcProfile(
+    @NotNull P player,
+    @NotNull Npc<?, P, ?, ?> npc
+  ) {
+    // check if the profile was already resolved (or is currently resolving) for the player
+    int entityId = npc.entityId();
+    Map<Integer, CompletableFuture<Profile.Resolved>> playerEntries = this.cache.get(player);
+    CompletableFuture<Profile.Resolved> cached = playerEntries == null ? null : playerEntries.get(entityId);
+    if (cached != null) {
+      return cached;
+    }
+
+    // only cache the profiles for players which are tracked by the npc, a resolve for a player that
+    // is no longer tracked (for example after a disconnect) would otherwise leak the entries of the player
+    if (!npc.tracksPlayer(player)) {
+      return this.delegate.resolveNpcProfile(player, npc);
+    }
+
+    // resolve the profile using the delegate, use the result of another thread in case it was faster
+    playerEntries = this.cache.computeIfAbsent(player, key -> new ConcurrentHashMap<>());
+    CompletableFuture<Profile.Resolved> future = this.delegate.resolveNpcProfile(player, npc);
+    CompletableFuture<Profile.Resolved> present = playerEntries.putIfAbsent(entityId, future);
+    if (present != null) {
+      return present;
+    }
+
+    // the player might have stopped being tracked while the entry was added, drop the entry again
+    // in that case as the invalidation of the player might already be done
+    if (!npc.tracksPlayer(player)) {
+      this.removeEntry(player, playerEntries, entityId, future);
+      return future;
+    }
+
+    // don't keep failed resolve attempts, the next call should retry
+    Map<Integer, CompletableFuture<Profile.Resolved>> entries = playerEntries;
+    future.whenComplete((profile, exception) -> {
+      if (exception != null) {
+        this.removeEntry(player, entries, entityId, future);
+      }
+    });
+    return future;
+  }
+
+  private void removeEntry(
+    @NotNull P player,
+    @NotNull Map<Integer, CompletableFuture<Profile.Resolved>> playerEntries,
+    int entityId,
+    @NotNull CompletableFuture<Profile.Resolved> future
+  ) {
+    // remove the entry and the map of the player if it's empty afterwards
+    playerEntries.remove(entityId, future);
+    this.cache.computeIfPresent(player, (key, entries) -> entries.isEmpty() ? null : entries);
+  }
+
+  @Override
+  public void invalidate(@NotNull P player, @NotNull Npc<?, P, ?, ?> npc) {
+    Map<Integer, CompletableFuture<Profile.Resolved>> playerEntries = this.cache.get(player);
+    if (playerEntries != null) {
+      playerEntries.remove(npc.entityId());
+    }
+  }
+
+  @Override
+  public void invalidatePlayer(@NotNull P player) {
+    this.cache.remove(player);
+  }
+
+  @Override
+  public void invalidateNpc(@NotNull Npc<?, P, ?, ?> npc) {
+    int entityId = npc.entityId();
+    for (Map<Integer, CompletableFuture<Profile.Resolved>> playerEntries : this.cache.values()) {
+      playerEntries.remove(entityId);
+    }
+  }
+
+  @Override
+  public void invalidateAll() {
+    this.cache.clear();
+  }
+}
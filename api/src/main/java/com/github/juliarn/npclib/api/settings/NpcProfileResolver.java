@@ -26,6 +26,7 @@
 
 import com.github.juliarn.npclib.api.Npc;
 import com.github.juliarn.npclib.api.profile.Profile;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import org.jetbrains.annotations.NotNull;
 
@@ -36,5 +37,21 @@
     return (player, npc) -> CompletableFuture.completedFuture(npc.profile());
   }
 
+  static @NotNull <P> NpcProfileResolver.Cached<P> caching(@NotNull NpcProfileResolver<P> delegate) {
+    Objects.requireNonNull(delegate, "delegate");
+    return new DefaultCachedNpcProfileResolver<>(delegate);
+  }
+
   @NotNull CompletableFuture<Profile.Resolved> resolveNpcProfile(@NotNull P player, @NotNull Npc<?, P, ?, ?> npc);
+
+  interface Cached<P> extends NpcProfileResolver<P> {
+
+    void invalidate(@NotNull P player, @NotNull Npc<?, P, ?, ?> npc);
+
+    void invalidatePlayer(@NotNull P player);
+
+    void invalidateNpc(@NotNull Npc<?, P, ?, ?> npc);
+
+    void invalidateAll();
+  }
 }
@@ -29,10 +29,14 @@ plugins {
   alias(libs.plugins.spotless)
   alias(libs.plugins.nexusPublish)
   alias(libs.plugins.shadow) apply false
+  alias(libs.plugins.jmh) apply false
 }
 
 defaultTasks("build", "shadowJar")
 
+// the location of the java 21 classes in the multi-release jars
+val multiReleaseClassesPath = "META-INF/versions/21/com/github/juliarn/npclib/"
+
 allprojects {
   version = "3.0.0-SNAPSHOT"
   group = "io.github.juliarn"
@@ -75,6 +79,9 @@ subprojects {
 
   dependencies {
     "compileOnly"(rootProject.libs.annotations)
+
+    "testImplementation"(rootProject.libs.junit)
+    "testRuntimeOnly"(rootProject.libs.junitLauncher)
   }
 
   configurations.all {
@@ -89,11 +96,18 @@ subprojects {
 
   tasks.withType<ShadowJar> {
     archiveClassifier.set(null as String?)
-    dependencies {
-      // excludes the META-INF directory, module infos & html files of all dependencies
-      // this includes for example maven lib files & multi-release module-json files
-      exclude("META-INF/**", "**/*.html", "module-info.*")
+    manifest.attributes("Multi-Release" to "true")
+
+    // excludes the META-INF directory, module infos & html files of all dependencies
+    // this includes for example maven lib files & multi-release module-json files
+    // the java 21 classes of npc-lib itself (and the directories leading to them) must be kept
+    exclude {
+      val path = it.relativePath.pathString
+      path.startsWith("META-INF/")
+        && !path.startsWith(multiReleaseClassesPath)
+        && !multiReleaseClassesPath.startsWith("$path/")
     }
+    exclude("**/*.html", "module-info.*")
   }
 
   tasks.withType<JavaCompile>().configureEach {
@@ -110,6 +124,55 @@ subprojects {
     toolchain.languageVersion.set(JavaLanguageVersion.of(17))
   }
 
+  // multi-release jar support: classes in src/main/java21 replace their java 8 variants on java 21+ runtimes
+  if (file("src/main/java21").isDirectory) {
+    val sourceSets = the<SourceSetContainer>()
+    val mainSourceSet = sourceSets.getByName("main")
+    val java21SourceSet = sourceSets.create("java21") {
+      java.srcDir("src/main/java21")
+      compileClasspath += mainSourceSet.output + mainSourceSet.compileClasspath
+    }
+
+    tasks.named<JavaCompile>(java21SourceSet.compileJavaTaskName) {
+      options.release.set(21)
+      javaCompiler.set(the<JavaToolchainService>().compilerFor {
+        languageVersion.set(JavaLanguageVersion.of(21))
+      })
+    }
+
+    val java21Javadoc = tasks.register<Javadoc>("java21Javadoc") {
+      source = java21SourceSet.allJava
+      classpath = java21SourceSet.compileClasspath
+      setDestinationDir(layout.buildDirectory.dir("docs/java21Javadoc").get().asFile)
+      javadocTool.set(the<JavaToolchainService>().javadocToolFor {
+        languageVersion.set(JavaLanguageVersion.of(21))
+      })
+    }
+
+    tasks.withType<Jar>().matching { it.name == "jar" || it.name == "shadowJar" }.configureEach {
+      manifest.attributes("Multi-Release" to "true")
+      into("META-INF/versions/21") {
+        from(java21SourceSet.output)
+      }
+    }
+
+    // the sources & javadoc jars are registered below, configure them lazily
+    tasks.withType<Jar>().matching { it.name == "sourcesJar" }.configureEach {
+      into("META-INF/versions/21") {
+        from(java21SourceSet.allJava)
+      }
+    }
+    tasks.withType<Jar>().matching { it.name == "javadocJar" }.configureEach {
+      into("versions/21") {
+        from(java21Javadoc)
+      }
+    }
+  }
+
+  tasks.withType<Test> {
+    useJUnitPlatform()
+  }
+
   tasks.withType<Checkstyle> {
     maxErrors = 0
     maxWarnings = 0
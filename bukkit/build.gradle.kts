@@ -24,6 +24,10 @@
 
 import com.github.jengelman.gradle.plugins.shadow.tasks.ShadowJar
 
+plugins {
+  id("me.champeau.jmh")
+}
+
 dependencies {
   api(projects.npcLibApi)
   implementation(projects.npcLibCommon)
@@ -33,6 +37,7 @@ dependencies {
   implementation(libs.packetEvents)
 
   compileOnly(libs.netty)
+  compileOnly(libs.nettyTransport)
   compileOnly(libs.paper)
   compileOnly(libs.protocolLib)
 }
@@ -49,3 +54,8 @@ tasks.withType<ShadowJar> {
     exclude("plugin.yml")
   }
 }
+
+jmh {
+  // run the benchmarks using ./gradlew :npc-lib-bukkit:jmh
+  jmhVersion.set(libs.versions.jmh)
+}
@@ -0,0 +1,183 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.juliarn.npclib.bukkit.protocol;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// compares the two ways of building a spawn packet: writing the fields into a new packet (what the protocol lib
+// adapter does) and cloning a pre-filled template which is then updated. protocol lib needs a running server to
+// create packet containers, so the benchmark models the packet and uses the same mechanism protocol lib uses
+// internally for both strategies: generic reflective field accessors
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketContainerBenchmark {
+
+  private static final MethodHandle CONSTRUCTOR;
+  private static final MethodHandle[] GETTERS;
+  private static final MethodHandle[] SETTERS;
+
+  private static final MethodHandle ID_SETTER;
+  private static final MethodHandle UUID_SETTER;
+  private static final MethodHandle TYPE_SETTER;
+  private static final MethodHandle X_SETTER;
+  private static final MethodHandle Y_SETTER;
+  private static final MethodHandle Z_SETTER;
+  private static final MethodHandle YAW_SETTER;
+  private static final MethodHandle PITCH_SETTER;
+
+  static {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      Constructor<SpawnPacket> constructor = SpawnPacket.class.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      CONSTRUCTOR = lookup.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+
+      // accessors for all fields, used to copy the template like protocol lib does when cloning a container
+      List<MethodHandle> getters = new ArrayList<>();
+      List<MethodHandle> setters = new ArrayList<>();
+      for (Field field : SpawnPacket.class.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) {
+          getters.add(genericGetter(lookup, field));
+          setters.add(genericSetter(lookup, field));
+        }
+      }
+
+      GETTERS = getters.toArray(new MethodHandle[0]);
+      SETTERS = setters.toArray(new MethodHandle[0]);
+
+      ID_SETTER = genericSetter(lookup, SpawnPacket.class.getDeclaredField("id"));
+      UUID_SETTER = genericSetter(lookup, SpawnPacket.class.getDeclaredField("uuid"));
+      TYPE_SETTER = genericSetter(lookup, SpawnPacket.class.getDeclaredField("type"));
+      X_SETTER = genericSetter(lookup, SpawnPacket.class.getDeclaredField("x"));
+      Y_SETTER = genericSetter(lookup, SpawnPacket.class.getDeclaredField("y"));
+      Z_SETTER = genericSetter(lookup, SpawnPacket.class.getDeclaredField("z"));
+      YAW_SETTER = genericSetter(lookup, SpawnPacket.class.getDeclaredField("yRot"));
+      PITCH_SETTER = genericSetter(lookup, SpawnPacket.class.getDeclaredField("xRot"));
+    } catch (ReflectiveOperationException exception) {
+      throw new ExceptionInInitializerError(exception);
+    }
+  }
+
+  private final UUID uniqueId = UUID.randomUUID();
+
+  private Object template;
+  private int entityId;
+
+  private static @NotNull MethodHandle genericGetter(
+    @NotNull MethodHandles.Lookup lookup,
+    @NotNull Field field
+  ) throws IllegalAccessException {
+    field.setAccessible(true);
+    return lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+  }
+
+  private static @NotNull MethodHandle genericSetter(
+    @NotNull MethodHandles.Lookup lookup,
+    @NotNull Field field
+  ) throws IllegalAccessException {
+    field.setAccessible(true);
+    return lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+  }
+
+  @Setup
+  public void setup() throws Throwable {
+    this.template = CONSTRUCTOR.invoke();
+    TYPE_SETTER.invoke(this.template, (Object) "minecraft:player");
+  }
+
+  @Benchmark
+  public Object writeFields() throws Throwable {
+    Object packet = CONSTRUCTOR.invoke();
+    ID_SETTER.invoke(packet, (Object) this.entityId++);
+    UUID_SETTER.invoke(packet, (Object) this.uniqueId);
+    TYPE_SETTER.invoke(packet, (Object) "minecraft:player");
+    this.writePosition(packet);
+    return packet;
+  }
+
+  @Benchmark
+  public Object cloneTemplate() throws Throwable {
+    // copy all fields of the template, then write the ones which differ between the npcs
+    Object packet = CONSTRUCTOR.invoke();
+    for (int i = 0; i < GETTERS.length; i++) {
+      SETTERS[i].invoke(packet, GETTERS[i].invoke(this.template));
+    }
+
+    ID_SETTER.invoke(packet, (Object) this.entityId++);
+    UUID_SETTER.invoke(packet, (Object) this.uniqueId);
+    this.writePosition(packet);
+    return packet;
+  }
+
+  private void writePosition(@NotNull Object packet) throws Throwable {
+    X_SETTER.invoke(packet, (Object) 12.5D);
+    Y_SETTER.invoke(packet, (Object) 64D);
+    Z_SETTER.invoke(packet, (Object) (-7.25D));
+    YAW_SETTER.invoke(packet, (Object) (byte) 64);
+    PITCH_SETTER.invoke(packet, (Object) (byte) 0);
+  }
+
+  // the fields of the spawn entity packet (since 1.20.2)
+  @SuppressWarnings("unused")
+  private static final class SpawnPacket {
+
+    private int id;
+    private UUID uuid;
+    private Object type;
+    private double x;
+    private double y;
+    private double z;
+    private int xa;
+    private int ya;
+    private int za;
+    private byte xRot;
+    private byte yRot;
+    private byte yHeadRot;
+    private int data;
+  }
+}
@@ -29,6 +29,7 @@
 import com.github.juliarn.npclib.api.NpcTracker;
 import com.github.juliarn.npclib.api.PlatformVersionAccessor;
 import com.github.juliarn.npclib.api.Position;
+import com.github.juliarn.npclib.api.event.HideNpcEvent;
 import com.github.juliarn.npclib.api.event.ShowNpcEvent;
 import com.github.juliarn.npclib.api.event.manager.NpcEventManager;
 import com.github.juliarn.npclib.api.flag.NpcFlag;
@@ -38,9 +39,14 @@
 import com.github.juliarn.npclib.bukkit.util.BukkitPlatformUtil;
 import com.github.juliarn.npclib.common.CommonNpcActionController;
 import com.github.juliarn.npclib.common.flag.CommonNpcFlaggedBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
@@ -48,22 +54,33 @@
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.event.player.PlayerToggleSneakEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 
 public final class BukkitActionController extends CommonNpcActionController implements Listener {
 
+  // additional chunks to look at, ensures that npcs are removed when a player walks out of the spawn distance
+  private static final int SECTION_LOOKUP_CHUNK_MARGIN = 2;
+
   private final NpcTracker<World, Player, ItemStack, Plugin> npcTracker;
 
   // based on the given flags
   private final int spawnDistance;
   private final int imitateDistance;
 
+  // the chunk radius to look for npcs when the tracker is able to provide the npcs near a player
+  private final int spawnChunkRadius;
+  private final int imitateChunkRadius;
+
   public BukkitActionController(
     @NotNull Map<NpcFlag<?>, Optional<?>> flags,
     @NotNull Plugin plugin,
@@ -82,7 +99,7 @@ public BukkitActionController(
       eventManager.registerEventHandler(ShowNpcEvent.Post.class, event -> {
         // remove the npc from the tab list after the given amount of time (never smaller than 0 because of validation)
         int tabRemovalTicks = this.flagValueOrDefault(TAB_REMOVAL_TICKS);
-        plugin.getServer().getScheduler().runTaskLaterAsynchronously(plugin, () -> {
+        event.npc().platform().taskManager().scheduleDelayedAsync(() -> {
           // schedule the removal of the player from the tab list, can be done async
           Player player = event.player();
           event.npc().platform().packetFactory()
@@ -92,12 +109,19 @@ public BukkitActionController(
       });
     }
 
+    // reset the view state of npcs which are hidden from a player
+    eventManager.registerEventHandler(
+      HideNpcEvent.Post.class,
+      event -> this.removeViewState(event.player(), event.npc()));
+
     // pre-calculate flag values
     int spawnDistance = this.flagValueOrDefault(SPAWN_DISTANCE);
     this.spawnDistance = spawnDistance * spawnDistance;
+    this.spawnChunkRadius = (spawnDistance >> 4) + SECTION_LOOKUP_CHUNK_MARGIN;
 
     int imitateDistance = this.flagValueOrDefault(IMITATE_DISTANCE);
     this.imitateDistance = imitateDistance * imitateDistance;
+    this.imitateChunkRadius = (imitateDistance >> 4) + SECTION_LOOKUP_CHUNK_MARGIN;
 
     // register listener to update the npc rotation after it is tracked
     if (this.flagValueOrDefault(NpcActionController.AUTO_SYNC_POSITION_ON_SPAWN)) {
@@ -105,10 +129,9 @@ public BukkitActionController(
         Player player = event.player();
         Location to = player.getLocation();
 
+        // rotate through the view state, so that following rotation updates are based on this one
         double distance = BukkitPlatformUtil.distance(event.npc(), to);
-        if (distance <= this.imitateDistance && event.npc().flagValueOrDefault(Npc.LOOK_AT_PLAYER)) {
-          event.npc().lookAt(BukkitPlatformUtil.positionFromBukkitLegacy(to)).schedule(player);
-        }
+        this.rotateNpcTowards(player, event.npc(), BukkitPlatformUtil.positionFromBukkitLegacy(to), distance);
       });
     }
   }
@@ -138,53 +161,50 @@ public void handleMove(@NotNull PlayerMoveEvent event) {
 
     // check if any movement happened (event is also called when standing still)
     if (changedPosition || changedOrientation || changedWorld) {
-      Player player = event.getPlayer();
-      for (Npc<World, Player, ItemStack, Plugin> npc : this.npcTracker.trackedNpcs()) {
-        // check if the player is still in the same world as the npc
-        Position pos = npc.position();
-        if (!npc.world().equals(player.getWorld()) || !npc.world().isChunkLoaded(pos.chunkX(), pos.chunkZ())) {
-          // if the player is tracked by the npc, stop that
-          npc.stopTrackingPlayer(player);
-          continue;
-        }
+      // npcs in the old world must be removed as well when the player changed the world
+      if (changedWorld) {
+        this.hideNpcs(event.getPlayer(), this.npcTracker.trackedNpcs(from.getWorld()));
+      }
 
-        // check if the player moved in / out of any npc tracking distance
-        double distance = BukkitPlatformUtil.distance(npc, to);
-        if (distance > this.spawnDistance) {
-          // this will only do something if the player is already tracked by the npc
-          npc.stopTrackingPlayer(player);
-          continue;
-        } else {
-          // this will only do something if the player is not already tracked by the npc
-          npc.trackPlayer(player);
-        }
+      Collection<Npc<World, Player, ItemStack, Plugin>> npcs = changedWorld
+        ? this.npcTracker.trackedNpcs(to.getWorld())
+        : this.npcsNear(to, this.spawnChunkRadius);
+      this.updateNpcTracking(event.getPlayer(), to, npcs, changedPosition);
+    }
+  }
 
-        // check if we should rotate the npc towards the player
-        if (changedPosition
-          && npc.tracksPlayer(player)
-          && distance <= this.imitateDistance
-          && npc.flagValueOrDefault(Npc.LOOK_AT_PLAYER)) {
-          npc.lookAt(BukkitPlatformUtil.positionFromBukkitLegacy(to)).schedule(player);
-        }
-      }
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void handleTeleport(@NotNull PlayerTeleportEvent event) {
+    // npcs in the old world must be removed when the player teleported into another world
+    World fromWorld = event.getFrom().getWorld();
+    if (!Objects.equals(fromWorld, event.getTo().getWorld())) {
+      this.hideNpcs(event.getPlayer(), this.npcTracker.trackedNpcs(fromWorld));
     }
+
+    // the player might be far away from the previous location, check all npcs in the world
+    Collection<Npc<World, Player, ItemStack, Plugin>> npcs = this.npcTracker.trackedNpcs(event.getTo().getWorld());
+    this.updateNpcTracking(event.getPlayer(), event.getTo(), npcs, true);
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void handleWorldChange(@NotNull PlayerChangedWorldEvent event) {
+    // also covers world changes which are not caused by a move or teleport, for example respawns
+    this.hideNpcs(event.getPlayer(), this.npcTracker.trackedNpcs(event.getFrom()));
   }
 
   @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
   public void handleSneak(@NotNull PlayerToggleSneakEvent event) {
     Player player = event.getPlayer();
-    for (Npc<World, Player, ItemStack, Plugin> npc : this.npcTracker.trackedNpcs()) {
+    for (Npc<World, Player, ItemStack, Plugin> npc : this.npcsNear(player.getLocation(), this.imitateChunkRadius)) {
       double distance = BukkitPlatformUtil.distance(npc, player.getLocation());
 
       // check if we should imitate the action
-      if (Objects.equals(player.getWorld(), npc.world())
-        && npc.tracksPlayer(player)
+      if (npc.tracksPlayer(player)
         && distance <= this.imitateDistance
         && npc.flagValueOrDefault(Npc.SNEAK_WHEN_PLAYER_SNEAKS)) {
-        // let the npc sneak as well
-        npc.platform().packetFactory()
-          .createEntityMetaPacket(EntityMetadataFactory.sneakingMetaFactory(), event.isSneaking())
-          .schedule(player, npc);
+        // let the npc sneak as well, only for the player. sent through the metadata state of the npc to be
+        // ordered with other pending metadata changes
+        npc.changeMetadata(EntityMetadataFactory.sneakingMetaFactory(), event.isSneaking()).schedule(player);
       }
     }
   }
@@ -193,12 +213,11 @@ public void handleSneak(@NotNull PlayerToggleSneakEvent event) {
   public void handleLeftClick(@NotNull PlayerInteractEvent event) {
     if (event.getAction() == Action.LEFT_CLICK_AIR || event.getAction() == Action.LEFT_CLICK_BLOCK) {
       Player player = event.getPlayer();
-      for (Npc<World, Player, ItemStack, Plugin> npc : this.npcTracker.trackedNpcs()) {
+      for (Npc<World, Player, ItemStack, Plugin> npc : this.npcsNear(player.getLocation(), this.imitateChunkRadius)) {
         double distance = BukkitPlatformUtil.distance(npc, player.getLocation());
 
         // check if we should imitate the action
-        if (Objects.equals(player.getWorld(), npc.world())
-          && npc.tracksPlayer(player)
+        if (npc.tracksPlayer(player)
           && distance <= this.imitateDistance
           && npc.flagValueOrDefault(Npc.HIT_WHEN_PLAYER_HITS)) {
           // let the npc left click as well
@@ -210,10 +229,108 @@ public void handleLeftClick(@NotNull PlayerInteractEvent event) {
 
   @EventHandler(priority = EventPriority.MONITOR)
   public void handleQuit(@NotNull PlayerQuitEvent event) {
-    for (Npc<World, Player, ItemStack, Plugin> npc : this.npcTracker.trackedNpcs()) {
-      // check if the npc tracks the player which disconnected and stop tracking him if so
-      npc.stopTrackingPlayer(event.getPlayer());
+    // only npcs in the world of the player are able to track the player, the npcs of other worlds
+    // were hidden when the player changed the world
+    Player player = event.getPlayer();
+    handleNpcsQuit(this.npcTracker.trackedNpcs(player.getWorld()), player);
+
+    // remove the pending spawns of the player
+    this.handlePlayerQuit(event.getPlayer());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void handleChunkLoad(@NotNull ChunkLoadEvent event) {
+    Chunk chunk = event.getChunk();
+    for (Npc<World, Player, ItemStack, Plugin> npc : this.npcsInChunk(chunk)) {
+      this.activateNpc(npc);
+    }
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void handleChunkUnload(@NotNull ChunkUnloadEvent event) {
+    Chunk chunk = event.getChunk();
+    for (Npc<World, Player, ItemStack, Plugin> npc : this.npcsInChunk(chunk)) {
+      this.deactivateNpc(npc);
+    }
+
+    // remove the states of npcs which are no longer tracked
+    this.removeUntrackedActivationStates(this.npcTracker);
+  }
+
+  private void updateNpcTracking(
+    @NotNull Player player,
+    @NotNull Location to,
+    @NotNull Collection<Npc<World, Player, ItemStack, Plugin>> npcs,
+    boolean changedPosition
+  ) {
+    World world = to.getWorld();
+    Position target = BukkitPlatformUtil.positionFromBukkitLegacy(to);
+    Map<Npc<World, Player, ItemStack, Plugin>, Double> npcsInRange = new HashMap<>();
+    for (Npc<World, Player, ItemStack, Plugin> npc : npcs) {
+      // check if the player is still in the same world as the npc and if the chunk of the npc is loaded
+      if (!npc.world().equals(world) || !this.isNpcActive(npc, BukkitActionController::isNpcChunkLoaded)) {
+        // if the player is tracked by the npc, stop that
+        this.hideNpc(player, npc);
+        continue;
+      }
+
+      // check if the player moved in / out of any npc tracking distance
+      double distance = BukkitPlatformUtil.distance(npc, to);
+      if (distance > this.spawnDistance) {
+        this.hideNpc(player, npc);
+        continue;
+      }
+
+      // check if we should rotate the npc towards the player, based on the level of detail for the distance
+      npcsInRange.put(npc, distance);
+      if (changedPosition) {
+        this.rotateNpcTowards(player, npc, target, distance);
+      }
+    }
+
+    // show the npcs in range to the player, respecting the visible npc limit
+    this.showNpcs(player, npcsInRange);
+  }
+
+  private @NotNull Collection<Npc<World, Player, ItemStack, Plugin>> npcsNear(
+    @NotNull Location location,
+    int chunkRadius
+  ) {
+    // only the folia tracker is able to provide the npcs in a specific area
+    if (this.npcTracker instanceof FoliaNpcTracker) {
+      FoliaNpcTracker tracker = (FoliaNpcTracker) this.npcTracker;
+      return tracker.npcsNear(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4, chunkRadius);
     }
+
+    return this.npcTracker.trackedNpcs(location.getWorld());
+  }
+
+  private @NotNull List<Npc<World, Player, ItemStack, Plugin>> npcsInChunk(@NotNull Chunk chunk) {
+    int chunkX = chunk.getX();
+    int chunkZ = chunk.getZ();
+    World world = chunk.getWorld();
+
+    // only the folia tracker is able to provide the npcs in a specific area
+    Collection<Npc<World, Player, ItemStack, Plugin>> npcs = this.npcTracker instanceof FoliaNpcTracker
+      ? ((FoliaNpcTracker) this.npcTracker).npcsNear(world, chunkX, chunkZ, 0)
+      : this.npcTracker.trackedNpcs(world);
+
+    List<Npc<World, Player, ItemStack, Plugin>> npcsInChunk = new ArrayList<>();
+    for (Npc<World, Player, ItemStack, Plugin> npc : npcs) {
+      Position pos = npc.position();
+      if (pos.chunkX() == chunkX && pos.chunkZ() == chunkZ) {
+        npcsInChunk.add(npc);
+      }
+    }
+
+    return npcsInChunk;
+  }
+
+  private static boolean isNpcChunkLoaded(@NotNull Npc<World, Player, ItemStack, Plugin> npc) {
+    Position pos = npc.position();
+    // the loaded state of a chunk can be checked from any thread, also on folia where the chunk
+    // might be owned by a different region than the one of the player
+    return npc.world().isChunkLoaded(pos.chunkX(), pos.chunkZ());
   }
 
   private static final class BukkitActionControllerBuilder
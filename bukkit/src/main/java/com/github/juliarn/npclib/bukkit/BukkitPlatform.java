@@ -31,7 +31,6 @@
 import com.github.juliarn.npclib.bukkit.util.BukkitPlatformUtil;
 import com.github.juliarn.npclib.common.platform.CommonPlatform;
 import com.github.juliarn.npclib.common.platform.CommonPlatformBuilder;
-import com.github.juliarn.npclib.common.task.AsyncPlatformTaskManager;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -57,12 +56,17 @@ protected void prepareBuild() {
     // set the default task manager
     if (this.taskManager == null) {
       if (BukkitPlatformUtil.runsOnFolia()) {
-        this.taskManager = AsyncPlatformTaskManager.taskManager(this.extension.getName());
+        this.taskManager = FoliaPlatformTaskManager.taskManager(this.extension);
       } else {
         this.taskManager = BukkitPlatformTaskManager.taskManager(this.extension);
       }
     }
 
+    // use a tracker which groups the npcs by their location on folia
+    if (this.npcTracker == null && BukkitPlatformUtil.runsOnFolia()) {
+      this.npcTracker = FoliaNpcTracker.newNpcTracker();
+    }
+
     // set the default version accessor
     if (this.versionAccessor == null) {
       this.versionAccessor = BukkitVersionAccessor.versionAccessor();
@@ -99,7 +103,7 @@ protected void prepareBuild() {
     }
 
     // build the platform
-    return new CommonPlatform<>(
+    CommonPlatform<World, Player, ItemStack, Plugin> platform = new CommonPlatform<>(
       this.debug,
       this.extension,
       this.logger,
@@ -111,5 +115,9 @@ protected void prepareBuild() {
       this.eventManager,
       this.worldAccessor,
       this.packetAdapter);
+
+    // release the player slots once the players quit
+    BukkitPlayerSlotListener.register(this.extension, platform.taskManager(), platform.playerRegistry());
+    return platform;
   }
 }
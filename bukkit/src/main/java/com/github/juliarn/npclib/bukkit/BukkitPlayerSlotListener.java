@@ -0,0 +1,67 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.bukkit;
+
+import com.github.juliarn.npclib.api.PlatformTaskManager;
+import com.github.juliarn.npclib.common.player.PlayerSlotRegistry;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+final class BukkitPlayerSlotListener implements Listener {
+
+  private final PlatformTaskManager taskManager;
+  private final PlayerSlotRegistry<Player> playerRegistry;
+
+  private BukkitPlayerSlotListener(
+    @NotNull PlatformTaskManager taskManager,
+    @NotNull PlayerSlotRegistry<Player> playerRegistry
+  ) {
+    this.taskManager = taskManager;
+    this.playerRegistry = playerRegistry;
+  }
+
+  static void register(
+    @NotNull Plugin plugin,
+    @NotNull PlatformTaskManager taskManager,
+    @NotNull PlayerSlotRegistry<Player> playerRegistry
+  ) {
+    BukkitPlayerSlotListener listener = new BukkitPlayerSlotListener(taskManager, playerRegistry);
+    plugin.getServer().getPluginManager().registerEvents(listener, plugin);
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void handleQuit(@NotNull PlayerQuitEvent event) {
+    // the npcs no longer report the player as tracked once the slot is released, release it in the next tick
+    // to ensure that all quit listeners (regardless of their priority) were able to stop tracking the player.
+    // slots of players which are removed from all npcs before are freed without waiting for the quit
+    Player player = event.getPlayer();
+    this.taskManager.scheduleDelayedSync(() -> this.playerRegistry.releaseSlot(player), 1);
+  }
+}
@@ -28,6 +28,7 @@
 import com.github.juliarn.npclib.api.profile.Profile;
 import com.github.juliarn.npclib.api.profile.ProfileProperty;
 import com.github.juliarn.npclib.api.profile.ProfileResolver;
+import com.github.juliarn.npclib.api.util.BlockingTaskExecutor;
 import io.papermc.lib.PaperLib;
 import java.util.HashSet;
 import java.util.List;
@@ -66,7 +67,7 @@ private static final class PaperProfileResolver implements ProfileResolver {
 
     @Override
     public @NotNull CompletableFuture<Profile.Resolved> resolveProfile(@NotNull Profile profile) {
-      return CompletableFuture.supplyAsync(() -> {
+      return BlockingTaskExecutor.supplyAsync(() -> {
         // create a profile from the given one and try to complete it
         PlayerProfile playerProfile = Bukkit.createProfile(profile.uniqueId(), profile.name());
         playerProfile.complete(true, true);
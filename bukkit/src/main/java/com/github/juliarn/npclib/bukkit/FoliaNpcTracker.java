@@ -0,0 +1,182 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.bukkit;
+
+import com.github.juliarn.npclib.api.Npc;
+import com.github.juliarn.npclib.api.NpcTracker;
+import com.github.juliarn.npclib.api.Position;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+
+public final class FoliaNpcTracker implements NpcTracker<World, Player, ItemStack, Plugin> {
+
+  // npcs are grouped into the sections of the folia regionizer, each section is owned by exactly one region at a
+  // time. region threads only need to look at the sections around a player, the maps are safe to access from any
+  // region thread as sections might be transferred between regions when regions are merged or split
+  private static final int SECTION_SHIFT = regionSectionShift();
+
+  private final Map<Integer, Npc<World, Player, ItemStack, Plugin>> npcsById = new ConcurrentHashMap<>();
+  // keyed by the world uid to not keep unloaded worlds reachable while npcs are still tracked in them
+  private final Map<UUID, Map<Long, Set<Npc<World, Player, ItemStack, Plugin>>>> sections = new ConcurrentHashMap<>();
+
+  private FoliaNpcTracker() {
+  }
+
+  public static @NotNull FoliaNpcTracker newNpcTracker() {
+    return new FoliaNpcTracker();
+  }
+
+  private static int regionSectionShift() {
+    try {
+      // the section size of the regionizer is configurable, it's not exposed in the api
+      Class<?> tickRegions = Class.forName("io.papermc.paper.threadedregions.TickRegions");
+      return (int) tickRegions.getMethod("getRegionChunkShift").invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException exception) {
+      // the default section shift of the folia regionizer
+      return 4;
+    }
+  }
+
+  private static long sectionKey(int sectionX, int sectionZ) {
+    return ((long) sectionX << 32) | (sectionZ & 0xFFFFFFFFL);
+  }
+
+  private static long sectionKey(@NotNull Npc<World, Player, ItemStack, Plugin> npc) {
+    Position position = npc.position();
+    return sectionKey(position.chunkX() >> SECTION_SHIFT, position.chunkZ() >> SECTION_SHIFT);
+  }
+
+  @Override
+  public @Nullable Npc<World, Player, ItemStack, Plugin> npcById(int entityId) {
+    return this.npcsById.get(entityId);
+  }
+
+  @Override
+  public @Nullable Npc<World, Player, ItemStack, Plugin> npcByUniqueId(@NotNull UUID uniqueId) {
+    for (Npc<World, Player, ItemStack, Plugin> trackedNpc : this.npcsById.values()) {
+      if (trackedNpc.profile().uniqueId().equals(uniqueId)) {
+        return trackedNpc;
+      }
+    }
+
+    return null;
+  }
+
+  @Override
+  public void trackNpc(@NotNull Npc<World, Player, ItemStack, Plugin> npc) {
+    if (this.npcsById.putIfAbsent(npc.entityId(), npc) == null) {
+      // register the npc into the section it is located in
+      Map<Long, Set<Npc<World, Player, ItemStack, Plugin>>> worldSections = this.sections.computeIfAbsent(
+        npc.world().getUID(),
+        worldId -> new ConcurrentHashMap<>());
+      worldSections.compute(sectionKey(npc), (key, sectionNpcs) -> {
+        Set<Npc<World, Player, ItemStack, Plugin>> npcs = sectionNpcs;
+        if (npcs == null) {
+          npcs = ConcurrentHashMap.newKeySet();
+        }
+
+        npcs.add(npc);
+        return npcs;
+      });
+    }
+  }
+
+  @Override
+  public void stopTrackingNpc(@NotNull Npc<World, Player, ItemStack, Plugin> npc) {
+    if (this.npcsById.remove(npc.entityId(), npc)) {
+      Map<Long, Set<Npc<World, Player, ItemStack, Plugin>>> worldSections = this.sections.get(npc.world().getUID());
+      if (worldSections != null) {
+        // remove the npc from its section, drop the section if there are no more npcs in it
+        worldSections.computeIfPresent(sectionKey(npc), (key, sectionNpcs) -> {
+          sectionNpcs.remove(npc);
+          return sectionNpcs.isEmpty() ? null : sectionNpcs;
+        });
+      }
+    }
+  }
+
+  @Override
+  public @UnmodifiableView @NotNull Collection<Npc<World, Player, ItemStack, Plugin>> trackedNpcs() {
+    return Collections.unmodifiableCollection(this.npcsById.values());
+  }
+
+  @Override
+  public @NotNull Collection<Npc<World, Player, ItemStack, Plugin>> trackedNpcs(@NotNull World world) {
+    Map<Long, Set<Npc<World, Player, ItemStack, Plugin>>> worldSections = this.sections.get(world.getUID());
+    if (worldSections == null || worldSections.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    // collect the npcs of all sections in the world
+    List<Npc<World, Player, ItemStack, Plugin>> npcs = new ArrayList<>();
+    for (Set<Npc<World, Player, ItemStack, Plugin>> sectionNpcs : worldSections.values()) {
+      npcs.addAll(sectionNpcs);
+    }
+
+    return npcs;
+  }
+
+  public @NotNull Collection<Npc<World, Player, ItemStack, Plugin>> npcsNear(
+    @NotNull World world,
+    int chunkX,
+    int chunkZ,
+    int chunkRadius
+  ) {
+    Map<Long, Set<Npc<World, Player, ItemStack, Plugin>>> worldSections = this.sections.get(world.getUID());
+    if (worldSections == null || worldSections.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    // collect the npcs of all sections which are in the given radius
+    List<Npc<World, Player, ItemStack, Plugin>> npcs = new ArrayList<>();
+    int minSectionX = (chunkX - chunkRadius) >> SECTION_SHIFT;
+    int maxSectionX = (chunkX + chunkRadius) >> SECTION_SHIFT;
+    int minSectionZ = (chunkZ - chunkRadius) >> SECTION_SHIFT;
+    int maxSectionZ = (chunkZ + chunkRadius) >> SECTION_SHIFT;
+    for (int sectionX = minSectionX; sectionX <= maxSectionX; sectionX++) {
+      for (int sectionZ = minSectionZ; sectionZ <= maxSectionZ; sectionZ++) {
+        Set<Npc<World, Player, ItemStack, Plugin>> sectionNpcs = worldSections.get(sectionKey(sectionX, sectionZ));
+        if (sectionNpcs != null) {
+          npcs.addAll(sectionNpcs);
+        }
+      }
+    }
+
+    return npcs;
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.bukkit;
+
+import com.github.juliarn.npclib.api.Npc;
+import com.github.juliarn.npclib.api.PlatformTaskManager;
+import com.github.juliarn.npclib.api.Position;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+public final class FoliaPlatformTaskManager implements PlatformTaskManager {
+
+  private static final long ONE_TICK_MS = 50;
+
+  private final Plugin plugin;
+
+  private FoliaPlatformTaskManager(@NotNull Plugin plugin) {
+    this.plugin = plugin;
+  }
+
+  public static @NotNull FoliaPlatformTaskManager taskManager(@NotNull Plugin plugin) {
+    Objects.requireNonNull(plugin, "plugin");
+    return new FoliaPlatformTaskManager(plugin);
+  }
+
+  @Override
+  public void scheduleSync(@NotNull Runnable task) {
+    this.plugin.getServer().getGlobalRegionScheduler().execute(this.plugin, task);
+  }
+
+  @Override
+  public void scheduleDelayedSync(@NotNull Runnable task, int delayTicks) {
+    // folia does not accept delays smaller than one tick
+    if (delayTicks <= 0) {
+      this.scheduleSync(task);
+    } else {
+      this.plugin.getServer().getGlobalRegionScheduler().runDelayed(
+        this.plugin,
+        scheduledTask -> task.run(),
+        delayTicks);
+    }
+  }
+
+  @Override
+  public void scheduleAsync(@NotNull Runnable task) {
+    this.plugin.getServer().getAsyncScheduler().runNow(this.plugin, scheduledTask -> task.run());
+  }
+
+  @Override
+  public void scheduleDelayedAsync(@NotNull Runnable task, int delayTicks) {
+    if (delayTicks <= 0) {
+      this.scheduleAsync(task);
+    } else {
+      this.plugin.getServer().getAsyncScheduler().runDelayed(
+        this.plugin,
+        scheduledTask -> task.run(),
+        delayTicks * ONE_TICK_MS,
+        TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Override
+  public void scheduleForNpc(@NotNull Npc<?, ?, ?, ?> npc, @NotNull Runnable task) {
+    // npc related tasks run on the region which owns the location of the npc
+    Position position = npc.position();
+    this.scheduleForRegion((World) npc.world(), position.chunkX(), position.chunkZ(), task);
+  }
+
+  @Override
+  public void scheduleDelayedForNpc(@NotNull Npc<?, ?, ?, ?> npc, @NotNull Runnable task, int delayTicks) {
+    Position position = npc.position();
+    this.scheduleDelayedForRegion((World) npc.world(), position.chunkX(), position.chunkZ(), task, delayTicks);
+  }
+
+  public void scheduleForRegion(@NotNull World world, int chunkX, int chunkZ, @NotNull Runnable task) {
+    this.plugin.getServer().getRegionScheduler().execute(this.plugin, world, chunkX, chunkZ, task);
+  }
+
+  public void scheduleDelayedForRegion(
+    @NotNull World world,
+    int chunkX,
+    int chunkZ,
+    @NotNull Runnable task,
+    int delayTicks
+  ) {
+    if (delayTicks <= 0) {
+      this.scheduleForRegion(world, chunkX, chunkZ, task);
+    } else {
+      this.plugin.getServer().getRegionScheduler().runDelayed(
+        this.plugin,
+        world,
+        chunkX,
+        chunkZ,
+        scheduledTask -> task.run(),
+        delayTicks);
+    }
+  }
+
+  public void scheduleForEntity(@NotNull Entity entity, @NotNull Runnable task) {
+    // the task is silently dropped if the entity was removed in the meantime
+    entity.getScheduler().run(this.plugin, scheduledTask -> task.run(), null);
+  }
+
+  public void scheduleDelayedForEntity(@NotNull Entity entity, @NotNull Runnable task, int delayTicks) {
+    entity.getScheduler().runDelayed(this.plugin, scheduledTask -> task.run(), null, Math.max(1, delayTicks));
+  }
+}
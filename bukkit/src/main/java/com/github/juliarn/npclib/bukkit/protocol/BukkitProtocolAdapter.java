@@ -25,6 +25,7 @@
 package com.github.juliarn.npclib.bukkit.protocol;
 
 import com.github.juliarn.npclib.api.protocol.PlatformPacketAdapter;
+import java.util.Objects;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
@@ -48,6 +49,19 @@ private BukkitProtocolAdapter() {
     return PacketEventsPacketAdapter.INSTANCE;
   }
 
+  public static @NotNull PlatformPacketAdapter<World, Player, ItemStack, Plugin> paper(
+    @NotNull PlatformPacketAdapter<World, Player, ItemStack, Plugin> fallback
+  ) {
+    // opt-in only: the entity remove packet is sent natively and the outbound buffer is checked directly
+    // before sending cosmetic packets, every other packet (and the interact listener) uses the given fallback
+    Objects.requireNonNull(fallback, "fallback");
+    if (!PaperPacketAdapter.available()) {
+      throw new IllegalStateException("Native packets are only supported on mojang mapped paper servers");
+    }
+
+    return new PaperPacketAdapter(fallback);
+  }
+
   public static @NotNull PlatformPacketAdapter<World, Player, ItemStack, Plugin> protocolLib() {
     return ProtocolLibPacketAdapter.INSTANCE;
   }
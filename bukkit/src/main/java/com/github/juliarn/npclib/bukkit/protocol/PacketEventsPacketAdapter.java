@@ -26,21 +26,28 @@
 
 import com.github.juliarn.npclib.api.Npc;
 import com.github.juliarn.npclib.api.Platform;
+import com.github.juliarn.npclib.api.PlatformTaskManager;
 import com.github.juliarn.npclib.api.PlatformVersionAccessor;
 import com.github.juliarn.npclib.api.Position;
 import com.github.juliarn.npclib.api.event.InteractNpcEvent;
-import com.github.juliarn.npclib.api.profile.ProfileProperty;
+import com.github.juliarn.npclib.api.profile.Profile;
 import com.github.juliarn.npclib.api.protocol.OutboundPacket;
 import com.github.juliarn.npclib.api.protocol.PlatformPacketAdapter;
 import com.github.juliarn.npclib.api.protocol.chat.Component;
 import com.github.juliarn.npclib.api.protocol.enums.EntityAnimation;
 import com.github.juliarn.npclib.api.protocol.enums.EntityPose;
 import com.github.juliarn.npclib.api.protocol.enums.ItemSlot;
+import com.github.juliarn.npclib.api.protocol.enums.PacketImportance;
 import com.github.juliarn.npclib.api.protocol.enums.PlayerInfoAction;
 import com.github.juliarn.npclib.api.protocol.meta.EntityMetadata;
 import com.github.juliarn.npclib.api.protocol.meta.EntityMetadataFactory;
 import com.github.juliarn.npclib.common.event.DefaultAttackNpcEvent;
 import com.github.juliarn.npclib.common.event.DefaultInteractNpcEvent;
+import com.github.juliarn.npclib.common.util.BoundedCache;
+import com.github.juliarn.npclib.common.util.EntityMetadataHelper;
+import com.github.juliarn.npclib.common.util.FutureHelper;
+import com.github.juliarn.npclib.common.util.NpcProfileHelper;
+import com.github.juliarn.npclib.common.util.ProfilePropertyCache;
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.PacketEventsAPI;
 import com.github.retrooper.packetevents.event.PacketListenerPriority;
@@ -58,6 +65,7 @@
 import com.github.retrooper.packetevents.protocol.player.GameMode;
 import com.github.retrooper.packetevents.protocol.player.InteractionHand;
 import com.github.retrooper.packetevents.protocol.player.TextureProperty;
+import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.protocol.player.UserProfile;
 import com.github.retrooper.packetevents.protocol.world.Location;
 import com.github.retrooper.packetevents.settings.PacketEventsSettings;
@@ -82,9 +90,11 @@
 import io.github.retrooper.packetevents.factory.spigot.SpigotPacketEventsBuilder;
 import io.github.retrooper.packetevents.util.SpigotReflectionUtil;
 import io.leangen.geantyref.TypeFactory;
+import io.netty.channel.Channel;
 import java.lang.reflect.Type;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.EnumSet;
@@ -93,12 +103,20 @@
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 final class PacketEventsPacketAdapter implements PlatformPacketAdapter<World, Player, ItemStack, Plugin> {
 
@@ -116,6 +134,9 @@ final class PacketEventsPacketAdapter implements PlatformPacketAdapter<World, Pl
     net.kyori.adventure.text.Component.class);
 
 
+  // the resolved packet events users of the online players
+  private final Map<UUID, User> users = new ConcurrentHashMap<>();
+
   // lazy initialized, then never null again
   private ServerVersion serverVersion;
   private PlayerManager packetPlayerManager;
@@ -148,6 +169,76 @@ final class PacketEventsPacketAdapter implements PlatformPacketAdapter<World, Pl
     return new EntityData(index, Lazy.ENTITY_DATA_TYPE_LOOKUP.get(type), value);
   }
 
+  private @Nullable User resolveUser(@NotNull Player player) {
+    // the cache is only filled on join, a send during or after the quit must not cache the user of the
+    // closed connection again. the user is resolved from packet events if not cached or the channel is closed
+    User user = this.users.get(player.getUniqueId());
+    if (user == null || !isChannelOpen(user)) {
+      user = this.packetPlayerManager.getUser(player);
+    }
+
+    return user;
+  }
+
+  private void cacheUser(@NotNull Player player) {
+    // overwrites the user of a previous connection of the player
+    User user = this.packetPlayerManager.getUser(player);
+    if (user != null) {
+      this.users.put(player.getUniqueId(), user);
+    } else {
+      this.users.remove(player.getUniqueId());
+    }
+  }
+
+  private static boolean isChannelOpen(@NotNull User user) {
+    Object channel = user.getChannel();
+    return !(channel instanceof Channel) || ((Channel) channel).isOpen();
+  }
+
+  private boolean isChannelWritable(@NotNull Player player) {
+    User user = this.resolveUser(player);
+    if (user != null) {
+      Object channel = user.getChannel();
+      return !(channel instanceof Channel) || ((Channel) channel).isWritable();
+    }
+
+    return true;
+  }
+
+  private @NotNull OutboundPacket<World, Player, ItemStack, Plugin> cosmeticPacket(
+    @NotNull OutboundPacket<World, Player, ItemStack, Plugin> packet
+  ) {
+    return OutboundPacket.withImportance(PacketImportance.COSMETIC, (player, npc) -> {
+      // drop the packet if the client can't keep up, queueing it would only grow the outbound buffer further
+      if (this.isChannelWritable(player)) {
+        packet.schedule(player, npc);
+      }
+    });
+  }
+
+  private void sendPacket(@NotNull Player player, @NotNull PacketWrapper<?> wrapper) {
+    // send the packet without notifying any listeners
+    User user = this.resolveUser(player);
+    if (user != null) {
+      user.sendPacketSilently(wrapper);
+    }
+  }
+
+  private void writePacket(@NotNull Player player, @NotNull PacketWrapper<?> wrapper) {
+    // write the packet without notifying any listeners, the packet is sent on the next flush
+    User user = this.resolveUser(player);
+    if (user != null) {
+      user.writePacketSilently(wrapper);
+    }
+  }
+
+  private void flushPackets(@NotNull Player player) {
+    User user = this.resolveUser(player);
+    if (user != null) {
+      user.flushPackets();
+    }
+  }
+
   @Override
   public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createEntitySpawnPacket() {
     return (player, npc) -> {
@@ -171,8 +262,7 @@ final class PacketEventsPacketAdapter implements PlatformPacketAdapter<World, Pl
         wrapper = new WrapperPlayServerSpawnPlayer(npc.entityId(), npc.profile().uniqueId(), location);
       }
 
-      // send the packet without notifying any listeners
-      this.packetPlayerManager.sendPacketSilently(player, wrapper);
+      this.sendPacket(player, wrapper);
     };
   }
 
@@ -181,7 +271,7 @@ final class PacketEventsPacketAdapter implements PlatformPacketAdapter<World, Pl
     return (player, npc) -> {
       // DestroyEntities (https://wiki.vg/Protocol#Destroy_Entities)
       PacketWrapper<?> wrapper = new WrapperPlayServerDestroyEntities(npc.entityId());
-      this.packetPlayerManager.sendPacketSilently(player, wrapper);
+      this.sendPacket(player, wrapper);
     };
   }
 
@@ -189,57 +279,60 @@ final class PacketEventsPacketAdapter implements PlatformPacketAdapter<World, Pl
   public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createPlayerInfoPacket(
     @NotNull PlayerInfoAction action
   ) {
-    return (player, npc) -> npc.settings().profileResolver().resolveNpcProfile(player, npc).thenAcceptAsync(profile -> {
-      // convert the profile to a UserProfile
-      UserProfile userProfile = new UserProfile(profile.uniqueId(), profile.name());
-      for (ProfileProperty property : profile.properties()) {
-        TextureProperty textureProperty = new TextureProperty(property.name(), property.value(), property.signature());
-        userProfile.getTextureProperties().add(textureProperty);
-      }
-
-      // the wrapper we want to send
-      PacketWrapper<?> wrapper;
-
-      // check if we need to apply the old handling or new handling
-      if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_19_3)) {
-        if (action == PlayerInfoAction.REMOVE_PLAYER) {
-          // PlayerRemove (https://wiki.vg/Protocol#Player_Remove)
-          List<UUID> uuidsToRemove = Collections.singletonList(profile.uniqueId());
-          wrapper = new WrapperPlayServerPlayerInfoRemove(uuidsToRemove);
+    return (player, npc) -> {
+      CompletableFuture<Profile.Resolved> future = NpcProfileHelper.resolveProfile(npc, player);
+
+      // send the packet directly if the profile is already resolved, use the task manager of the platform otherwise
+      PlatformTaskManager taskManager = npc.platform().taskManager();
+      FutureHelper.acceptWhenDone(future, taskManager::scheduleAsync, profile -> {
+        // convert the profile to a UserProfile
+        UserProfile userProfile = new UserProfile(profile.uniqueId(), profile.name());
+        userProfile.getTextureProperties().addAll(Lazy.PROPERTY_CACHE.convert(profile.properties()));
+
+        // the wrapper we want to send
+        PacketWrapper<?> wrapper;
+
+        // check if we need to apply the old handling or new handling
+        if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_19_3)) {
+          if (action == PlayerInfoAction.REMOVE_PLAYER) {
+            // PlayerRemove (https://wiki.vg/Protocol#Player_Remove)
+            List<UUID> uuidsToRemove = Collections.singletonList(profile.uniqueId());
+            wrapper = new WrapperPlayServerPlayerInfoRemove(uuidsToRemove);
+          } else {
+            // create the player
+            WrapperPlayServerPlayerInfoUpdate.PlayerInfo playerInfo = new WrapperPlayServerPlayerInfoUpdate.PlayerInfo(
+              userProfile,
+              false,
+              20,
+              GameMode.CREATIVE,
+              null,
+              null);
+
+            // PlayerInfo (https://wiki.vg/Protocol#Player_Info)
+            wrapper = new WrapperPlayServerPlayerInfoUpdate(Lazy.ADD_ACTIONS, Collections.singletonList(playerInfo));
+          }
         } else {
-          // create the player
-          WrapperPlayServerPlayerInfoUpdate.PlayerInfo playerInfo = new WrapperPlayServerPlayerInfoUpdate.PlayerInfo(
+          // create the player profile data
+          WrapperPlayServerPlayerInfo.PlayerData playerData = new WrapperPlayServerPlayerInfo.PlayerData(
+            null,
             userProfile,
-            false,
-            20,
             GameMode.CREATIVE,
-            null,
-            null);
+            20);
 
           // PlayerInfo (https://wiki.vg/Protocol#Player_Info)
-          wrapper = new WrapperPlayServerPlayerInfoUpdate(Lazy.ADD_ACTIONS, Collections.singletonList(playerInfo));
+          WrapperPlayServerPlayerInfo.Action playerInfoAction = Lazy.PLAYER_INFO_ACTION_CONVERTER.get(action);
+          wrapper = new WrapperPlayServerPlayerInfo(playerInfoAction, playerData);
         }
-      } else {
-        // create the player profile data
-        WrapperPlayServerPlayerInfo.PlayerData playerData = new WrapperPlayServerPlayerInfo.PlayerData(
-          null,
-          userProfile,
-          GameMode.CREATIVE,
-          20);
-
-        // PlayerInfo (https://wiki.vg/Protocol#Player_Info)
-        WrapperPlayServerPlayerInfo.Action playerInfoAction = Lazy.PLAYER_INFO_ACTION_CONVERTER.get(action);
-        wrapper = new WrapperPlayServerPlayerInfo(playerInfoAction, playerData);
-      }
 
-      // send the packet without notifying any listeners
-      this.packetPlayerManager.sendPacketSilently(player, wrapper);
-    });
+        this.sendPacket(player, wrapper);
+      });
+    };
   }
 
   @Override
   public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createRotationPacket(float yaw, float pitch) {
-    return (player, npc) -> {
+    // the rotation is not dropped here, the action controller keeps it pending while the client can't keep up
+    return OutboundPacket.withImportance(PacketImportance.COSMETIC, (player, npc) -> {
       // head rotation (https://wiki.vg/Protocol#Entity_Head_Look)
       PacketWrapper<?> headRotation = new WrapperPlayServerEntityHeadLook(npc.entityId(), yaw);
 
@@ -253,25 +346,24 @@ final class PacketEventsPacketAdapter implements PlatformPacketAdapter<World, Pl
         rotation = new WrapperPlayServerEntityTeleport(npc.entityId(), npcLocation(npc, yaw, pitch), true);
       }
 
-      // send the packet without notifying any listeners
-      this.packetPlayerManager.sendPacketSilently(player, rotation);
-      this.packetPlayerManager.sendPacketSilently(player, headRotation);
-    };
+      // send both packets with a single flush
+      this.writePacket(player, rotation);
+      this.sendPacket(player, headRotation);
+    });
   }
 
   @Override
   public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createAnimationPacket(
     @NotNull EntityAnimation animation
   ) {
-    return (player, npc) -> {
+    return this.cosmeticPacket((player, npc) -> {
       // EntityAnimation (https://wiki.vg/Protocol#Entity_Animation_.28clientbound.29)
       WrapperPlayServerEntityAnimation.EntityAnimationType animationType
         = Lazy.ENTITY_ANIMATION_CONVERTER.get(animation);
       PacketWrapper<?> wrapper = new WrapperPlayServerEntityAnimation(npc.entityId(), animationType);
 
-      // send the packet without notifying any listeners
-      this.packetPlayerManager.sendPacketSilently(player, wrapper);
-    };
+      this.sendPacket(player, wrapper);
+    });
   }
 
   @Override
@@ -279,18 +371,39 @@ final class PacketEventsPacketAdapter implements PlatformPacketAdapter<World, Pl
     @NotNull ItemSlot slot,
     @NotNull ItemStack item
   ) {
-    return (player, npc) -> {
-      EquipmentSlot equipmentSlot = Lazy.ITEM_SLOT_CONVERTER.get(slot);
-      com.github.retrooper.packetevents.protocol.item.ItemStack is = SpigotReflectionUtil.decodeBukkitItemStack(item);
+    return this.createEquipmentPacket(Collections.singletonMap(slot, item));
+  }
 
-      // EntityEquipment (https://wiki.vg/Protocol#Entity_Equipment)
-      Equipment equipment = new Equipment(equipmentSlot, is);
-      PacketWrapper<?> wrapper = new WrapperPlayServerEntityEquipment(
-        npc.entityId(),
-        Collections.singletonList(equipment));
+  @Override
+  public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createEquipmentPacket(
+    @NotNull Map<ItemSlot, ItemStack> items
+  ) {
+    // convert the items once, the converted items are re-used for every player the packet is sent to
+    List<Equipment> equipment = new ArrayList<>(items.size());
+    for (Map.Entry<ItemSlot, ItemStack> entry : items.entrySet()) {
+      EquipmentSlot equipmentSlot = Lazy.ITEM_SLOT_CONVERTER.get(entry.getKey());
+      com.github.retrooper.packetevents.protocol.item.ItemStack is
+        = SpigotReflectionUtil.decodeBukkitItemStack(entry.getValue());
+      equipment.add(new Equipment(equipmentSlot, is));
+    }
 
-      // send the packet without notifying any listeners
-      this.packetPlayerManager.sendPacketSilently(player, wrapper);
+    return (player, npc) -> {
+      if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_16)) {
+        // EntityEquipment (https://wiki.vg/Protocol#Entity_Equipment), multiple slots since 1.16
+        PacketWrapper<?> wrapper = new WrapperPlayServerEntityEquipment(npc.entityId(), equipment);
+        this.sendPacket(player, wrapper);
+      } else {
+        // older versions only support one slot per packet
+        for (Equipment slotEquipment : equipment) {
+          PacketWrapper<?> wrapper = new WrapperPlayServerEntityEquipment(
+            npc.entityId(),
+            Collections.singletonList(slotEquipment));
+          this.writePacket(player, wrapper);
+        }
+
+        // flush all slot packets at once
+        this.flushPackets(player);
+      }
     };
   }
 
@@ -302,7 +415,7 @@ final class PacketEventsPacketAdapter implements PlatformPacketAdapter<World, Pl
     return (player, npc) -> {
       // CustomPayload (https://wiki.vg/Protocol#Custom_Payload)
       PacketWrapper<?> wrapper = new WrapperPlayServerPluginMessage(channelId, payload);
-      this.packetPlayerManager.sendPacketSilently(player, wrapper);
+      this.sendPacket(player, wrapper);
     };
   }
 
@@ -312,37 +425,48 @@ final class PacketEventsPacketAdapter implements PlatformPacketAdapter<World, Pl
     @NotNull T value
   ) {
     return (player, npc) -> {
-      // create the entity meta
+      // create the entity meta & send the available entries in one packet
       PlatformVersionAccessor versionAccessor = npc.platform().versionAccessor();
-      EntityMetadata<O> entityMetadata = metadata.create(value, versionAccessor);
+      List<EntityMetadata<?>> entityMetadata = EntityMetadataHelper.createAvailableMetadata(
+        metadata,
+        value,
+        versionAccessor);
+      this.createEntityMetaPacket(entityMetadata).schedule(player, npc);
+    };
+  }
 
-      // check if the meta is available
-      if (!entityMetadata.available()) {
+  @Override
+  public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createEntityMetaPacket(
+    @NotNull Collection<EntityMetadata<?>> metadata
+  ) {
+    return (player, npc) -> {
+      // check if there is anything to send
+      if (metadata.isEmpty()) {
         return;
       }
 
       // construct the meta we want to send out
-      List<EntityData> entityData = new ArrayList<>();
-      entityData.add(createEntityData(
-        entityMetadata.index(),
-        entityMetadata.type(),
-        entityMetadata.value(),
-        versionAccessor));
-
-      // add ll dependant metas
-      for (EntityMetadataFactory<T, Object> relatedMetadata : metadata.relatedMetadata()) {
-        EntityMetadata<Object> related = relatedMetadata.create(value, versionAccessor);
-        if (related.available()) {
-          entityData.add(createEntityData(related.index(), related.type(), related.value(), versionAccessor));
-        }
+      PlatformVersionAccessor versionAccessor = npc.platform().versionAccessor();
+      List<EntityData> entityData = new ArrayList<>(metadata.size());
+      for (EntityMetadata<?> entityMetadata : metadata) {
+        entityData.add(createEntityData(
+          entityMetadata.index(),
+          entityMetadata.type(),
+          entityMetadata.value(),
+          versionAccessor));
       }
 
       // EntityMetadata (https://wiki.vg/Protocol#Entity_Metadata)
       PacketWrapper<?> wrapper = new WrapperPlayServerEntityMetadata(npc.entityId(), entityData);
-      this.packetPlayerManager.sendPacketSilently(player, wrapper);
+      this.sendPacket(player, wrapper);
     };
   }
 
+  @Override
+  public boolean shouldSendCosmeticPackets(@NotNull Player player) {
+    return this.isChannelWritable(player);
+  }
+
   @Override
   public void initialize(@NotNull Platform<World, Player, ItemStack, Plugin> platform) {
     // build the packet events api
@@ -365,6 +489,27 @@ public void initialize(@NotNull Platform<World, Player, ItemStack, Plugin> platf
 
     // add the packet listener
     packetEventsApi.getEventManager().registerListener(new NpcUsePacketAdapter(platform));
+
+    // add the listener to keep the user cache up-to-date, cache the players which are already online
+    Plugin plugin = platform.extension();
+    plugin.getServer().getPluginManager().registerEvents(new UserCacheListener(), plugin);
+    for (Player player : plugin.getServer().getOnlinePlayers()) {
+      this.cacheUser(player);
+    }
+  }
+
+  private final class UserCacheListener implements Listener {
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void handleJoin(@NotNull PlayerJoinEvent event) {
+      // resolve the user before any npc is spawned for the player
+      PacketEventsPacketAdapter.this.cacheUser(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void handleQuit(@NotNull PlayerQuitEvent event) {
+      PacketEventsPacketAdapter.this.users.remove(event.getPlayer().getUniqueId());
+    }
   }
 
   private static final class NpcUsePacketAdapter extends SimplePacketListenerAbstract {
@@ -415,6 +560,13 @@ private static final class Lazy {
     private static final EnumMap<EntityAnimation, WrapperPlayServerEntityAnimation.EntityAnimationType> ENTITY_ANIMATION_CONVERTER;
     private static final EnumMap<EntityPose, com.github.retrooper.packetevents.protocol.entity.pose.EntityPose> ENTITY_POSE_CONVERTER;
 
+    // the converted components, the conversion requires parsing of the legacy text or json
+    private static final BoundedCache<Component, net.kyori.adventure.text.Component> COMPONENT_CACHE
+      = BoundedCache.boundedCache(512);
+    // the converted profile properties, textures shared between profiles are only converted once
+    private static final ProfilePropertyCache<TextureProperty> PROPERTY_CACHE = ProfilePropertyCache.propertyCache(
+      property -> new TextureProperty(property.name(), property.value(), property.signature()));
+
     // serializer converters for metadata
     private static final Map<Type, EntityDataType<?>> ENTITY_DATA_TYPE_LOOKUP;
     private static final Map<Type, BiFunction<PlatformVersionAccessor, Object, Map.Entry<Type, Object>>> SERIALIZER_CONVERTERS;
@@ -539,14 +691,14 @@ private static final class Lazy {
               // construct the entry
               return new AbstractMap.SimpleImmutableEntry<>(
                 OPTIONAL_CHAT_COMPONENT_TYPE,
-                optionalComponent.map(component -> {
+                optionalComponent.map(component -> COMPONENT_CACHE.get(component, key -> {
                   // build the component based on the given input
-                  if (component.rawMessage() != null) {
-                    return AdventureSerializer.fromLegacyFormat(component.rawMessage());
+                  if (key.rawMessage() != null) {
+                    return AdventureSerializer.fromLegacyFormat(key.rawMessage());
                   } else {
-                    return AdventureSerializer.getGsonSerializer().deserializeOrNull(component.encodedJsonMessage());
+                    return AdventureSerializer.getGsonSerializer().deserializeOrNull(key.encodedJsonMessage());
                   }
-                }));
+                })));
             } else {
               return new AbstractMap.SimpleImmutableEntry<>(String.class, optionalComponent
                 .map(component -> Objects.requireNonNull(
@@ -0,0 +1,264 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.bukkit.protocol;
+
+import com.github.juliarn.npclib.api.Platform;
+import com.github.juliarn.npclib.api.protocol.OutboundPacket;
+import com.github.juliarn.npclib.api.protocol.PlatformPacketAdapter;
+import com.github.juliarn.npclib.api.protocol.enums.EntityAnimation;
+import com.github.juliarn.npclib.api.protocol.enums.ItemSlot;
+import com.github.juliarn.npclib.api.protocol.enums.PlayerInfoAction;
+import com.github.juliarn.npclib.api.protocol.meta.EntityMetadata;
+import com.github.juliarn.npclib.api.protocol.meta.EntityMetadataFactory;
+import io.netty.channel.Channel;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Map;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+final class PaperPacketAdapter implements PlatformPacketAdapter<World, Player, ItemStack, Plugin> {
+
+  private static final Bindings BINDINGS = Bindings.bind();
+
+  private final PlatformPacketAdapter<World, Player, ItemStack, Plugin> fallback;
+
+  PaperPacketAdapter(@NotNull PlatformPacketAdapter<World, Player, ItemStack, Plugin> fallback) {
+    this.fallback = fallback;
+  }
+
+  static boolean available() {
+    return BINDINGS != null;
+  }
+
+  private static void sendPackets(@NotNull Player player, @NotNull Object... packets) {
+    try {
+      Object connection = BINDINGS.playerConnectionGetter.invokeExact((Object) player);
+      for (Object packet : packets) {
+        BINDINGS.sendPacket.invokeExact(connection, packet);
+      }
+    } catch (Throwable throwable) {
+      throw new IllegalStateException("Unable to send packet to " + player.getName(), throwable);
+    }
+  }
+
+  private static boolean isChannelWritable(@NotNull Player player) {
+    try {
+      Object connection = BINDINGS.playerConnectionGetter.invokeExact((Object) player);
+      Channel channel = (Channel) BINDINGS.connectionChannelGetter.invokeExact(connection);
+      return channel == null || channel.isWritable();
+    } catch (Throwable throwable) {
+      return true;
+    }
+  }
+
+  @Override
+  public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createEntitySpawnPacket() {
+    return this.fallback.createEntitySpawnPacket();
+  }
+
+  @Override
+  public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createEntityRemovePacket() {
+    return (player, npc) -> {
+      try {
+        // RemoveEntities (https://wiki.vg/Protocol#Remove_Entities)
+        Object packet = BINDINGS.removeEntitiesConstructor.invokeExact(new int[]{npc.entityId()});
+        sendPackets(player, packet);
+      } catch (Throwable throwable) {
+        throw new IllegalStateException("Unable to construct remove entities packet", throwable);
+      }
+    };
+  }
+
+  @Override
+  public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createPlayerInfoPacket(
+    @NotNull PlayerInfoAction action
+  ) {
+    return this.fallback.createPlayerInfoPacket(action);
+  }
+
+  @Override
+  public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createRotationPacket(float yaw, float pitch) {
+    // the head rotation packet has no constructor accepting an entity id, let the fallback encode both packets
+    return this.fallback.createRotationPacket(yaw, pitch);
+  }
+
+  @Override
+  public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createAnimationPacket(
+    @NotNull EntityAnimation animation
+  ) {
+    // the animation packet has no constructor accepting an entity id, let the fallback encode it
+    return this.fallback.createAnimationPacket(animation);
+  }
+
+  @Override
+  public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createEquipmentPacket(
+    @NotNull ItemSlot slot,
+    @NotNull ItemStack item
+  ) {
+    return this.fallback.createEquipmentPacket(slot, item);
+  }
+
+  @Override
+  public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createEquipmentPacket(
+    @NotNull Map<ItemSlot, ItemStack> items
+  ) {
+    return this.fallback.createEquipmentPacket(items);
+  }
+
+  @Override
+  public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createCustomPayloadPacket(
+    @NotNull String channelId,
+    byte[] payload
+  ) {
+    return this.fallback.createCustomPayloadPacket(channelId, payload);
+  }
+
+  @Override
+  public @NotNull <T, O> OutboundPacket<World, Player, ItemStack, Plugin> createEntityMetaPacket(
+    @NotNull EntityMetadataFactory<T, O> metadata,
+    @NotNull T value
+  ) {
+    return this.fallback.createEntityMetaPacket(metadata, value);
+  }
+
+  @Override
+  public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createEntityMetaPacket(
+    @NotNull Collection<EntityMetadata<?>> metadata
+  ) {
+    return this.fallback.createEntityMetaPacket(metadata);
+  }
+
+  @Override
+  public boolean shouldSendCosmeticPackets(@NotNull Player player) {
+    return isChannelWritable(player);
+  }
+
+  @Override
+  public void initialize(@NotNull Platform<World, Player, ItemStack, Plugin> platform) {
+    // the fallback adapter handles the remaining packets and the incoming interact packets
+    this.fallback.initialize(platform);
+  }
+
+  private static final class Bindings {
+
+    // (Object player) -> Object connection
+    private final MethodHandle playerConnectionGetter;
+    // (Object connection, Object packet) -> void
+    private final MethodHandle sendPacket;
+    // (Object connection) -> Channel
+    private final MethodHandle connectionChannelGetter;
+    // (int[]) -> Object
+    private final MethodHandle removeEntitiesConstructor;
+
+    private Bindings(
+      @NotNull MethodHandle playerConnectionGetter,
+      @NotNull MethodHandle sendPacket,
+      @NotNull MethodHandle connectionChannelGetter,
+      @NotNull MethodHandle removeEntitiesConstructor
+    ) {
+      this.playerConnectionGetter = playerConnectionGetter;
+      this.sendPacket = sendPacket;
+      this.connectionChannelGetter = connectionChannelGetter;
+      this.removeEntitiesConstructor = removeEntitiesConstructor;
+    }
+
+    private static @Nullable Bindings bind() {
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        // the server classes, only available on mojang mapped servers (paper 1.20.5+)
+        Class<?> packetClass = Class.forName("net.minecraft.network.protocol.Packet");
+        Class<?> serverPlayerClass = Class.forName("net.minecraft.server.level.ServerPlayer");
+        Class<?> networkManagerClass = Class.forName("net.minecraft.network.Connection");
+        Class<?> craftPlayerClass = Class.forName(Bukkit.getServer().getClass().getPackage().getName()
+          + ".entity.CraftPlayer");
+
+        // player -> server player -> connection
+        MethodHandle getHandle = lookup.findVirtual(
+          craftPlayerClass,
+          "getHandle",
+          MethodType.methodType(serverPlayerClass));
+        Field connectionField = serverPlayerClass.getField("connection");
+        MethodHandle connectionGetter = lookup.unreflectGetter(connectionField);
+        MethodHandle playerConnectionGetter = MethodHandles.filterReturnValue(getHandle, connectionGetter)
+          .asType(MethodType.methodType(Object.class, Object.class));
+
+        // connection.send(Packet)
+        Class<?> connectionClass = connectionField.getType();
+        MethodHandle sendPacket = lookup
+          .findVirtual(connectionClass, "send", MethodType.methodType(void.class, packetClass))
+          .asType(MethodType.methodType(void.class, Object.class, Object.class));
+
+        // connection -> network manager -> channel
+        Field networkManagerField = findField(connectionClass, networkManagerClass);
+        Field channelField = findField(networkManagerClass, Channel.class);
+        MethodHandle connectionChannelGetter = MethodHandles
+          .filterReturnValue(lookup.unreflectGetter(networkManagerField), lookup.unreflectGetter(channelField))
+          .asType(MethodType.methodType(Channel.class, Object.class));
+
+        // remove entities packet constructor
+        MethodHandle removeEntitiesConstructor = lookup
+          .findConstructor(
+            Class.forName("net.minecraft.network.protocol.game.ClientboundRemoveEntitiesPacket"),
+            MethodType.methodType(void.class, int[].class))
+          .asType(MethodType.methodType(Object.class, int[].class));
+
+        return new Bindings(
+          playerConnectionGetter,
+          sendPacket,
+          connectionChannelGetter,
+          removeEntitiesConstructor);
+      } catch (Throwable throwable) {
+        // not a modern paper server or the server internals changed
+        return null;
+      }
+    }
+
+    private static @NotNull Field findField(
+      @NotNull Class<?> holder,
+      @NotNull Class<?> fieldType
+    ) throws NoSuchFieldException {
+      for (Class<?> current = holder; current != null; current = current.getSuperclass()) {
+        for (Field field : current.getDeclaredFields()) {
+          if (field.getType() == fieldType) {
+            field.setAccessible(true);
+            return field;
+          }
+        }
+      }
+
+      throw new NoSuchFieldException(fieldType.getName() + " in " + holder.getName());
+    }
+  }
+}
@@ -30,6 +30,9 @@
 import com.comphenix.protocol.events.PacketAdapter;
 import com.comphenix.protocol.events.PacketContainer;
 import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.reflect.accessors.Accessors;
+import com.comphenix.protocol.reflect.accessors.FieldAccessor;
+import com.comphenix.protocol.utility.MinecraftFields;
 import com.comphenix.protocol.utility.MinecraftReflection;
 import com.comphenix.protocol.utility.MinecraftVersion;
 import com.comphenix.protocol.wrappers.CustomPacketPayloadWrapper;
@@ -46,30 +49,39 @@
 import com.comphenix.protocol.wrappers.WrappedWatchableObject;
 import com.github.juliarn.npclib.api.Npc;
 import com.github.juliarn.npclib.api.Platform;
+import com.github.juliarn.npclib.api.PlatformTaskManager;
 import com.github.juliarn.npclib.api.PlatformVersionAccessor;
 import com.github.juliarn.npclib.api.event.InteractNpcEvent;
-import com.github.juliarn.npclib.api.profile.ProfileProperty;
+import com.github.juliarn.npclib.api.profile.Profile;
 import com.github.juliarn.npclib.api.protocol.OutboundPacket;
 import com.github.juliarn.npclib.api.protocol.PlatformPacketAdapter;
 import com.github.juliarn.npclib.api.protocol.chat.Component;
 import com.github.juliarn.npclib.api.protocol.enums.EntityAnimation;
 import com.github.juliarn.npclib.api.protocol.enums.EntityPose;
 import com.github.juliarn.npclib.api.protocol.enums.ItemSlot;
+import com.github.juliarn.npclib.api.protocol.enums.PacketImportance;
 import com.github.juliarn.npclib.api.protocol.enums.PlayerInfoAction;
 import com.github.juliarn.npclib.api.protocol.meta.EntityMetadata;
 import com.github.juliarn.npclib.api.protocol.meta.EntityMetadataFactory;
 import com.github.juliarn.npclib.common.event.DefaultAttackNpcEvent;
 import com.github.juliarn.npclib.common.event.DefaultInteractNpcEvent;
+import com.github.juliarn.npclib.common.util.BoundedCache;
+import com.github.juliarn.npclib.common.util.EntityMetadataHelper;
+import com.github.juliarn.npclib.common.util.FutureHelper;
+import com.github.juliarn.npclib.common.util.NpcProfileHelper;
+import com.github.juliarn.npclib.common.util.ProfilePropertyCache;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import io.leangen.geantyref.GenericTypeReflector;
 import io.leangen.geantyref.TypeFactory;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.EnumSet;
@@ -78,6 +90,8 @@
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
@@ -99,6 +113,27 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
   private static final ProtocolManager PROTOCOL_MANAGER = ProtocolLibrary.getProtocolManager();
   private static final MinecraftVersion SERVER_VERSION = MinecraftVersion.fromServerVersion(Bukkit.getVersion());
 
+  // the version dependant packet layouts, resolved once as the server version can't change at runtime
+  private static final boolean V1_9 = MinecraftVersion.COMBAT_UPDATE.atOrAbove();
+  private static final boolean V1_13 = MinecraftVersion.AQUATIC_UPDATE.atOrAbove();
+  private static final boolean V1_16 = MinecraftVersion.NETHER_UPDATE.atOrAbove();
+  private static final boolean V1_17 = MinecraftVersion.CAVES_CLIFFS_1.atOrAbove();
+  private static final boolean V1_19_3 = MinecraftVersion.FEATURE_PREVIEW_UPDATE.atOrAbove();
+  private static final boolean V1_20_2 = MinecraftVersion.CONFIG_PHASE_PROTOCOL_UPDATE.atOrAbove();
+  private static final boolean SPAWN_WITH_DATA_WATCHER = MinecraftVersion.VILLAGE_UPDATE.isAtLeast(SERVER_VERSION);
+
+  // the accessor for the netty channel of a network manager
+  private static final FieldAccessor NETWORK_MANAGER_CHANNEL = Accessors.getFieldAccessor(
+    MinecraftReflection.getNetworkManagerClass(),
+    Channel.class,
+    true);
+
+  // the packet writers for the current server version
+  private static final PacketType SPAWN_PACKET_TYPE;
+  private static final PacketType ROTATION_PACKET_TYPE;
+  private static final PacketWriter POSITION_WRITER;
+  private static final PacketWriter ENTITY_ID_LIST_WRITER;
+
   private static final EnumMap<EntityPose, Object> ENTITY_POSE_CONVERTER;
   private static final EnumMap<ItemSlot, EnumWrappers.ItemSlot> ITEM_SLOT_CONVERTER;
   private static final EnumMap<EnumWrappers.Hand, InteractNpcEvent.Hand> HAND_CONVERTER;
@@ -106,6 +141,13 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
 
   // serializer converters for metadata
   private static final Map<Type, BiFunction<PlatformVersionAccessor, Object, Map.Entry<Type, Object>>> SERIALIZER_CONVERTERS;
+  // the converted component handles, the conversion requires parsing of the legacy text or json
+  private static final BoundedCache<Component, Object> COMPONENT_CACHE = BoundedCache.boundedCache(512);
+  // the data watcher serializers resolved for each type, the lookup is reflective and costly
+  private static final Map<Type, WrappedDataWatcher.Serializer> DATA_WATCHER_SERIALIZERS = new ConcurrentHashMap<>();
+  // the converted profile properties, textures shared between profiles are only converted once
+  private static final ProfilePropertyCache<WrappedSignedProperty> PROPERTY_CACHE = ProfilePropertyCache.propertyCache(
+    property -> new WrappedSignedProperty(property.name(), property.value(), property.signature()));
 
   // static actions we need to send out for all player updates (since 1.19.3)
   private static final EnumSet<EnumWrappers.PlayerInfoAction> ADD_ACTIONS = EnumSet.of(
@@ -116,6 +158,39 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
     EnumWrappers.PlayerInfoAction.UPDATE_DISPLAY_NAME);
 
   static {
+    if (V1_20_2) {
+      // SpawnEntity (https://wiki.vg/Protocol#Spawn_Entity)
+      SPAWN_PACKET_TYPE = PacketType.Play.Server.SPAWN_ENTITY;
+    } else {
+      // SpawnPlayer (https://wiki.vg/Protocol#Spawn_Player)
+      SPAWN_PACKET_TYPE = PacketType.Play.Server.NAMED_ENTITY_SPAWN;
+    }
+
+    if (V1_9) {
+      // mc 1.9: player rotation (https://wiki.vg/Protocol#Player_Rotation) & plain double positions
+      ROTATION_PACKET_TYPE = PacketType.Play.Server.ENTITY_LOOK;
+      POSITION_WRITER = (container, npc) -> container.getDoubles()
+        .write(0, npc.position().x())
+        .write(1, npc.position().y())
+        .write(2, npc.position().z());
+    } else {
+      // mc 1.8: entity teleport (https://wiki.vg/Protocol#Entity_Teleport) & fixed point positions
+      ROTATION_PACKET_TYPE = PacketType.Play.Server.ENTITY_TELEPORT;
+      POSITION_WRITER = (container, npc) -> container.getIntegers()
+        .write(1, (int) Math.floor(npc.position().x() * 32.0D))
+        .write(2, (int) Math.floor(npc.position().y() * 32.0D))
+        .write(3, (int) Math.floor(npc.position().z() * 32.0D));
+    }
+
+    if (V1_17) {
+      // mc 1.17: entity ids is a list
+      ENTITY_ID_LIST_WRITER = (container, npc) -> container.getIntLists()
+        .write(0, Collections.singletonList(npc.entityId()));
+    } else {
+      // mc 1.8: entity ids is an int array
+      ENTITY_ID_LIST_WRITER = (container, npc) -> container.getIntegerArrays().write(0, new int[]{npc.entityId()});
+    }
+
     // associate item slots with their respective protocol lib enum
     ITEM_SLOT_CONVERTER = new EnumMap<>(ItemSlot.class);
     ITEM_SLOT_CONVERTER.put(ItemSlot.MAIN_HAND, EnumWrappers.ItemSlot.MAINHAND);
@@ -190,14 +265,14 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
             // construct the entry
             return new AbstractMap.SimpleImmutableEntry<>(
               OPTIONAL_COMPONENT_TYPE,
-              optionalComponent.map(component -> {
+              optionalComponent.map(component -> COMPONENT_CACHE.get(component, key -> {
                 // build the component based on the given input
-                if (component.rawMessage() != null) {
-                  return WrappedChatComponent.fromLegacyText(component.rawMessage());
+                if (key.rawMessage() != null) {
+                  return WrappedChatComponent.fromLegacyText(key.rawMessage()).getHandle();
                 } else {
-                  return WrappedChatComponent.fromJson(component.encodedJsonMessage());
+                  return WrappedChatComponent.fromJson(key.encodedJsonMessage()).getHandle();
                 }
-              }).map(WrappedChatComponent::getHandle));
+              })));
           } else {
             return new AbstractMap.SimpleImmutableEntry<>(String.class, optionalComponent
               .map(component -> Objects.requireNonNull(
@@ -229,22 +304,11 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
       }
     }
 
-    if (MinecraftVersion.COMBAT_UPDATE.atOrAbove()) {
+    if (V1_9) {
       // mc 1.9: watchable object now contains a serializer for the type
-      if (type instanceof ParameterizedType) {
-        ParameterizedType parameterized = (ParameterizedType) type;
-        boolean optional = parameterized.getRawType() == Optional.class;
-        if (optional) {
-          Type serializerType = parameterized.getActualTypeArguments()[0];
-          Class<?> rawSerializerType = GenericTypeReflector.erase(serializerType);
-
-          WrappedDataWatcher.Serializer serializer = WrappedDataWatcher.Registry.get(rawSerializerType, true);
-          return new WrappedWatchableObject(new WrappedDataWatcher.WrappedDataWatcherObject(index, serializer), value);
-        }
-      }
-
-      Class<?> raw = GenericTypeReflector.erase(type);
-      WrappedDataWatcher.Serializer serializer = WrappedDataWatcher.Registry.get(raw, false);
+      WrappedDataWatcher.Serializer serializer = DATA_WATCHER_SERIALIZERS.computeIfAbsent(
+        type,
+        ProtocolLibPacketAdapter::resolveDataWatcherSerializer);
       return new WrappedWatchableObject(new WrappedDataWatcher.WrappedDataWatcherObject(index, serializer), value);
     } else {
       // mc 1.8: watchable object id
@@ -252,40 +316,59 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
     }
   }
 
+  private static @NotNull WrappedDataWatcher.Serializer resolveDataWatcherSerializer(@NotNull Type type) {
+    // optional values are using the serializer of the wrapped type
+    if (type instanceof ParameterizedType) {
+      ParameterizedType parameterized = (ParameterizedType) type;
+      boolean optional = parameterized.getRawType() == Optional.class;
+      if (optional) {
+        Type serializerType = parameterized.getActualTypeArguments()[0];
+        Class<?> rawSerializerType = GenericTypeReflector.erase(serializerType);
+        return WrappedDataWatcher.Registry.get(rawSerializerType, true);
+      }
+    }
+
+    Class<?> raw = GenericTypeReflector.erase(type);
+    return WrappedDataWatcher.Registry.get(raw, false);
+  }
+
+  private static boolean isChannelWritable(@NotNull Player player) {
+    Object networkManager = MinecraftFields.getNetworkManager(player);
+    if (networkManager != null) {
+      Object channel = NETWORK_MANAGER_CHANNEL.get(networkManager);
+      return !(channel instanceof Channel) || ((Channel) channel).isWritable();
+    }
+
+    return true;
+  }
+
+  private static @NotNull OutboundPacket<World, Player, ItemStack, Plugin> cosmeticPacket(
+    @NotNull OutboundPacket<World, Player, ItemStack, Plugin> packet
+  ) {
+    return OutboundPacket.withImportance(PacketImportance.COSMETIC, (player, npc) -> {
+      // drop the packet if the client can't keep up, queueing it would only grow the outbound buffer further
+      if (isChannelWritable(player)) {
+        packet.schedule(player, npc);
+      }
+    });
+  }
+
   @Override
   public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createEntitySpawnPacket() {
     return (player, npc) -> {
-      PacketContainer container;
-      if (MinecraftVersion.CONFIG_PHASE_PROTOCOL_UPDATE.atOrAbove()) {
-        // SpawnEntity (https://wiki.vg/Protocol#Spawn_Entity)
-        container = new PacketContainer(PacketType.Play.Server.SPAWN_ENTITY);
-      } else {
-        // SpawnPlayer (https://wiki.vg/Protocol#Spawn_Player)
-        container = new PacketContainer(PacketType.Play.Server.NAMED_ENTITY_SPAWN);
-      }
+      // SpawnEntity (since 1.20.2) or SpawnPlayer
+      PacketContainer container = new PacketContainer(SPAWN_PACKET_TYPE);
 
       // base information
       container.getIntegers().write(0, npc.entityId());
       container.getUUIDs().write(0, npc.profile().uniqueId());
 
-      if (MinecraftVersion.CONFIG_PHASE_PROTOCOL_UPDATE.atOrAbove()) {
+      if (V1_20_2) {
         container.getEntityTypeModifier().write(0, EntityType.PLAYER);
       }
 
       // position
-      if (MinecraftVersion.COMBAT_UPDATE.atOrAbove()) {
-        // mc 1.9: new position format (plain doubles)
-        container.getDoubles()
-          .write(0, npc.position().x())
-          .write(1, npc.position().y())
-          .write(2, npc.position().z());
-      } else {
-        // mc 1.8: old position format (rotation angles)
-        container.getIntegers()
-          .write(1, (int) Math.floor(npc.position().x() * 32.0D))
-          .write(2, (int) Math.floor(npc.position().y() * 32.0D))
-          .write(3, (int) Math.floor(npc.position().z() * 32.0D));
-      }
+      POSITION_WRITER.write(container, npc);
 
       // rotation (angles)
       container.getBytes()
@@ -293,7 +376,7 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
         .write(1, (byte) (npc.position().pitch() * 256F / 360F));
 
       // metadata if on an old server version (< 15)
-      if (MinecraftVersion.VILLAGE_UPDATE.isAtLeast(SERVER_VERSION)) {
+      if (SPAWN_WITH_DATA_WATCHER) {
         container.getDataWatcherModifier().write(0, new WrappedDataWatcher());
       }
 
@@ -309,13 +392,7 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
       PacketContainer container = new PacketContainer(PacketType.Play.Server.ENTITY_DESTROY);
 
       // entity id
-      if (MinecraftVersion.CAVES_CLIFFS_1.atOrAbove()) {
-        // mc 1.17: entity ids is a list
-        container.getIntLists().write(0, Lists.newArrayList(npc.entityId()));
-      } else {
-        // mc 1.8: entity ids is an int array
-        container.getIntegerArrays().write(0, new int[]{npc.entityId()});
-      }
+      ENTITY_ID_LIST_WRITER.write(container, npc);
 
       // send the packet without notifying any bound packet listeners
       PROTOCOL_MANAGER.sendServerPacket(player, container, false);
@@ -326,61 +403,67 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
   public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createPlayerInfoPacket(
     @NotNull PlayerInfoAction action
   ) {
-    return (player, npc) -> npc.settings().profileResolver().resolveNpcProfile(player, npc).thenAcceptAsync(profile -> {
-      // since 1.19.3 removing of players is handled in a separate packet
-      if (action == PlayerInfoAction.REMOVE_PLAYER && MinecraftVersion.FEATURE_PREVIEW_UPDATE.atOrAbove()) {
-        // PlayerRemove (https://wiki.vg/Protocol#Player_Remove)
-        PacketContainer container = new PacketContainer(PacketType.Play.Server.PLAYER_INFO_REMOVE);
-
-        // write the npc uuid to remove
-        List<UUID> uuidsToRemove = Collections.singletonList(profile.uniqueId());
-        container.getUUIDLists().write(0, uuidsToRemove);
-
-        // send the packet without notifying any bound packet listeners
-        PROTOCOL_MANAGER.sendServerPacket(player, container, false);
-        return;
-      }
+    return (player, npc) -> {
+      CompletableFuture<Profile.Resolved> future = NpcProfileHelper.resolveProfile(npc, player);
+
+      // send the packet directly if the profile is already resolved, use the task manager of the platform otherwise
+      PlatformTaskManager taskManager = npc.platform().taskManager();
+      FutureHelper.acceptWhenDone(future, taskManager::scheduleAsync, profile -> {
+        // since 1.19.3 removing of players is handled in a separate packet
+        if (action == PlayerInfoAction.REMOVE_PLAYER && V1_19_3) {
+          // PlayerRemove (https://wiki.vg/Protocol#Player_Remove)
+          PacketContainer container = new PacketContainer(PacketType.Play.Server.PLAYER_INFO_REMOVE);
+
+          // write the npc uuid to remove
+          List<UUID> uuidsToRemove = Collections.singletonList(profile.uniqueId());
+          container.getUUIDLists().write(0, uuidsToRemove);
+
+          // send the packet without notifying any bound packet listeners
+          PROTOCOL_MANAGER.sendServerPacket(player, container, false);
+          return;
+        }
 
-      // PlayerInfo (https://wiki.vg/Protocol#Player_Info)
-      PacketContainer container = new PacketContainer(PacketType.Play.Server.PLAYER_INFO);
+        // PlayerInfo (https://wiki.vg/Protocol#Player_Info)
+        PacketContainer container = new PacketContainer(PacketType.Play.Server.PLAYER_INFO);
 
-      // action
-      int playerInfoDataIndex = 0;
-      if (MinecraftVersion.FEATURE_PREVIEW_UPDATE.atOrAbove()) {
-        // at this point the only way this could be called is because we want to register a new player
-        playerInfoDataIndex = 1;
-        container.getPlayerInfoActions().write(0, ADD_ACTIONS);
-      } else {
-        // old system, just add the translated action
-        EnumWrappers.PlayerInfoAction playerInfoAction = PLAYER_INFO_ACTION_CONVERTER.get(action);
-        container.getPlayerInfoAction().write(0, playerInfoAction);
-      }
+        // action
+        int playerInfoDataIndex = 0;
+        if (V1_19_3) {
+          // at this point the only way this could be called is because we want to register a new player
+          playerInfoDataIndex = 1;
+          container.getPlayerInfoActions().write(0, ADD_ACTIONS);
+        } else {
+          // old system, just add the translated action
+          EnumWrappers.PlayerInfoAction playerInfoAction = PLAYER_INFO_ACTION_CONVERTER.get(action);
+          container.getPlayerInfoAction().write(0, playerInfoAction);
+        }
 
-      // convert to a protocol lib profile
-      WrappedGameProfile wrappedGameProfile = new WrappedGameProfile(profile.uniqueId(), profile.name());
-      for (ProfileProperty prop : profile.properties()) {
-        WrappedSignedProperty wrapped = new WrappedSignedProperty(prop.name(), prop.value(), prop.signature());
-        wrappedGameProfile.getProperties().put(prop.name(), wrapped);
-      }
+        // convert to a protocol lib profile
+        WrappedGameProfile wrappedGameProfile = new WrappedGameProfile(profile.uniqueId(), profile.name());
+        for (WrappedSignedProperty property : PROPERTY_CACHE.convert(profile.properties())) {
+          wrappedGameProfile.getProperties().put(property.getName(), property);
+        }
 
-      // add the player info data
-      PlayerInfoData playerInfoData = new PlayerInfoData(
-        profile.uniqueId(),
-        20,
-        false,
-        EnumWrappers.NativeGameMode.CREATIVE,
-        wrappedGameProfile,
-        null);
-      container.getPlayerInfoDataLists().write(playerInfoDataIndex, Lists.newArrayList(playerInfoData));
+        // add the player info data
+        PlayerInfoData playerInfoData = new PlayerInfoData(
+          profile.uniqueId(),
+          20,
+          false,
+          EnumWrappers.NativeGameMode.CREATIVE,
+          wrappedGameProfile,
+          null);
+        container.getPlayerInfoDataLists().write(playerInfoDataIndex, Lists.newArrayList(playerInfoData));
 
-      // send the packet without notifying any bound packet listeners
-      PROTOCOL_MANAGER.sendServerPacket(player, container, false);
-    });
+        // send the packet without notifying any bound packet listeners
+        PROTOCOL_MANAGER.sendServerPacket(player, container, false);
+      });
+    };
   }
 
   @Override
   public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createRotationPacket(float yaw, float pitch) {
-    return (player, npc) -> {
+    // the rotation is not dropped here, the action controller keeps it pending while the client can't keep up
+    return OutboundPacket.withImportance(PacketImportance.COSMETIC, (player, npc) -> {
       // pre-calculate the yaw and pitch angle values
       byte yawAngle = (byte) (yaw * 256F / 360F);
       byte pitchAngle = (byte) (pitch * 256F / 360F);
@@ -391,17 +474,10 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
       headRotation.getIntegers().write(0, npc.entityId());
 
       // entity teleport (https://wiki.vg/Protocol#Entity_Teleport) or Player Rotation (https://wiki.vg/Protocol#Player_Rotation)
-      PacketContainer rotation;
-      if (MinecraftVersion.COMBAT_UPDATE.atOrAbove()) {
-        // mc 1.9: player rotation
-        rotation = new PacketContainer(PacketType.Play.Server.ENTITY_LOOK);
-      } else {
-        // mc 1.8: entity teleport
-        rotation = new PacketContainer(PacketType.Play.Server.ENTITY_TELEPORT);
-        rotation.getIntegers()
-          .write(1, (int) Math.floor(npc.position().x() * 32.0D))
-          .write(2, (int) Math.floor(npc.position().y() * 32.0D))
-          .write(3, (int) Math.floor(npc.position().z() * 32.0D));
+      PacketContainer rotation = new PacketContainer(ROTATION_PACKET_TYPE);
+      if (!V1_9) {
+        // mc 1.8: entity teleport, requires the position
+        POSITION_WRITER.write(rotation, npc);
       }
 
       // entity id
@@ -418,14 +494,14 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
       // send the packet without notifying any bound packet listeners
       PROTOCOL_MANAGER.sendServerPacket(player, rotation, false);
       PROTOCOL_MANAGER.sendServerPacket(player, headRotation, false);
-    };
+    });
   }
 
   @Override
   public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createAnimationPacket(
     @NotNull EntityAnimation animation
   ) {
-    return (player, npc) -> {
+    return cosmeticPacket((player, npc) -> {
       // EntityAnimation (https://wiki.vg/Protocol#Entity_Animation_.28clientbound.29)
       PacketContainer container = new PacketContainer(PacketType.Play.Server.ANIMATION);
 
@@ -436,28 +512,50 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
 
       // send the packet without notifying any bound packet listeners
       PROTOCOL_MANAGER.sendServerPacket(player, container, false);
-    };
+    });
   }
 
   @Override
   public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createEquipmentPacket(
     @NotNull ItemSlot slot,
     @NotNull ItemStack item
+  ) {
+    return this.createEquipmentPacket(Collections.singletonMap(slot, item));
+  }
+
+  @Override
+  public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createEquipmentPacket(
+    @NotNull Map<ItemSlot, ItemStack> items
   ) {
     return (player, npc) -> {
-      // EntityEquipment (https://wiki.vg/Protocol#Entity_Equipment)
-      PacketContainer container = new PacketContainer(PacketType.Play.Server.ENTITY_EQUIPMENT);
+      if (V1_16) {
+        // mc 1.16: item slot & item stack pairs, all slots can be sent in one packet
+        List<Pair<EnumWrappers.ItemSlot, ItemStack>> slotStackPairs = new ArrayList<>(items.size());
+        for (Map.Entry<ItemSlot, ItemStack> entry : items.entrySet()) {
+          slotStackPairs.add(new Pair<>(ITEM_SLOT_CONVERTER.get(entry.getKey()), entry.getValue()));
+        }
 
-      // entity id
-      container.getIntegers().write(0, npc.entityId());
+        // EntityEquipment (https://wiki.vg/Protocol#Entity_Equipment)
+        PacketContainer container = new PacketContainer(PacketType.Play.Server.ENTITY_EQUIPMENT);
+        container.getIntegers().write(0, npc.entityId());
+        container.getSlotStackPairLists().write(0, slotStackPairs);
 
-      // item
-      if (MinecraftVersion.NETHER_UPDATE.atOrAbove()) {
-        // mc 1.16: item slot & item stack pairs
-        EnumWrappers.ItemSlot itemSlot = ITEM_SLOT_CONVERTER.get(slot);
-        container.getSlotStackPairLists().write(0, Lists.newArrayList(new Pair<>(itemSlot, item)));
-      } else {
-        if (MinecraftVersion.COMBAT_UPDATE.atOrAbove()) {
+        // send the packet without notifying any bound packet listeners
+        PROTOCOL_MANAGER.sendServerPacket(player, container, false);
+        return;
+      }
+
+      // older versions only support one slot per packet
+      for (Map.Entry<ItemSlot, ItemStack> entry : items.entrySet()) {
+        ItemSlot slot = entry.getKey();
+
+        // EntityEquipment (https://wiki.vg/Protocol#Entity_Equipment)
+        PacketContainer container = new PacketContainer(PacketType.Play.Server.ENTITY_EQUIPMENT);
+
+        // entity id
+        container.getIntegers().write(0, npc.entityId());
+
+        if (V1_9) {
           // mc 1.9: item slot
           container.getItemSlots().write(0, ITEM_SLOT_CONVERTER.get(slot));
         } else {
@@ -472,11 +570,11 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
         }
 
         // the actual item
-        container.getItemModifier().write(0, item);
-      }
+        container.getItemModifier().write(0, entry.getValue());
 
-      // send the packet without notifying any bound packet listeners
-      PROTOCOL_MANAGER.sendServerPacket(player, container, false);
+        // send the packet without notifying any bound packet listeners
+        PROTOCOL_MANAGER.sendServerPacket(player, container, false);
+      }
     };
   }
 
@@ -489,12 +587,12 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
       // CustomPayload (https://wiki.vg/Protocol#Custom_Payload)
       PacketContainer container = new PacketContainer(PacketType.Play.Server.CUSTOM_PAYLOAD);
 
-      if (MinecraftVersion.AQUATIC_UPDATE.atOrAbove()) {
+      if (V1_13) {
         // mc 1.13: channel id is now in the format of a resource location
         String[] parts = channelId.split(":", 2);
         MinecraftKey key = parts.length == 1 ? new MinecraftKey(channelId) : new MinecraftKey(parts[0], parts[1]);
 
-        if (MinecraftVersion.CONFIG_PHASE_PROTOCOL_UPDATE.atOrAbove()) {
+        if (V1_20_2) {
           // mc 1.20.2: custom payload info is in a wrapper object
           CustomPacketPayloadWrapper payloadWrapper = new CustomPacketPayloadWrapper(payload, key);
           container.getCustomPacketPayloads().write(0, payloadWrapper);
@@ -507,7 +605,7 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
         container.getStrings().write(0, channelId);
       }
 
-      if (!MinecraftVersion.CONFIG_PHASE_PROTOCOL_UPDATE.atOrAbove()) {
+      if (!V1_20_2) {
         // pre 1.20.2: payload data is a ByteBuf field
         ByteBuf buffer = Unpooled.copiedBuffer(payload);
         Object wrappedSerializableBuffer = MinecraftReflection.getPacketDataSerializer(buffer);
@@ -525,36 +623,38 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
     @NotNull T value
   ) {
     return (player, npc) -> {
-      // create the entity meta
+      // create the entity meta & send the available entries in one packet
       PlatformVersionAccessor versionAcc = npc.platform().versionAccessor();
-      EntityMetadata<O> entityMetadata = metadata.create(value, versionAcc);
+      List<EntityMetadata<?>> entityMetadata = EntityMetadataHelper.createAvailableMetadata(
+        metadata,
+        value,
+        versionAcc);
+      this.createEntityMetaPacket(entityMetadata).schedule(player, npc);
+    };
+  }
 
-      // check if the meta is available
-      if (!entityMetadata.available()) {
+  @Override
+  public @NotNull OutboundPacket<World, Player, ItemStack, Plugin> createEntityMetaPacket(
+    @NotNull Collection<EntityMetadata<?>> metadata
+  ) {
+    return (player, npc) -> {
+      // check if there is anything to send
+      if (metadata.isEmpty()) {
         return;
       }
 
       // construct the meta we want to send out
-      List<WrappedWatchableObject> watchableObjects = new ArrayList<>();
-      watchableObjects.add(createWatchableObject(
-        entityMetadata.index(),
-        entityMetadata.type(),
-        entityMetadata.value(),
-        versionAcc));
-
-      // add all dependant metas
-      for (EntityMetadataFactory<T, Object> relatedMetadata : metadata.relatedMetadata()) {
-        EntityMetadata<Object> related = relatedMetadata.create(value, versionAcc);
-        if (related.available()) {
-          // create & register the watchable object
-          WrappedWatchableObject watchableObject = createWatchableObject(
-            related.index(),
-            related.type(),
-            related.value(),
-            versionAcc);
-          if (watchableObject != null) {
-            watchableObjects.add(watchableObject);
-          }
+      PlatformVersionAccessor versionAcc = npc.platform().versionAccessor();
+      List<WrappedWatchableObject> watchableObjects = new ArrayList<>(metadata.size());
+      for (EntityMetadata<?> entityMetadata : metadata) {
+        // create & register the watchable object
+        WrappedWatchableObject watchableObject = createWatchableObject(
+          entityMetadata.index(),
+          entityMetadata.type(),
+          entityMetadata.value(),
+          versionAcc);
+        if (watchableObject != null) {
+          watchableObjects.add(watchableObject);
         }
       }
 
@@ -565,7 +665,7 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
       container.getIntegers().write(0, npc.entityId());
 
       // since 1.19.3 the metadata is wrapped in a specified object, we therefore need to convert all values
-      if (MinecraftVersion.FEATURE_PREVIEW_UPDATE.atOrAbove()) {
+      if (V1_19_3) {
         // convert the given values
         List<WrappedDataValue> wrappedDataValues = new ArrayList<>(watchableObjects.size());
         for (WrappedWatchableObject object : watchableObjects) {
@@ -588,6 +688,11 @@ final class ProtocolLibPacketAdapter implements PlatformPacketAdapter<World, Pla
     };
   }
 
+  @Override
+  public boolean shouldSendCosmeticPackets(@NotNull Player player) {
+    return isChannelWritable(player);
+  }
+
   @Override
   public void initialize(@NotNull Platform<World, Player, ItemStack, Plugin> platform) {
     PROTOCOL_MANAGER.addPacketListener(new NpcUsePacketAdapter(platform));
@@ -616,7 +721,7 @@ public void onPacketReceiving(@NotNull PacketEvent event) {
         EnumWrappers.EntityUseAction action;
         EnumWrappers.Hand hand = EnumWrappers.Hand.MAIN_HAND;
 
-        if (MinecraftVersion.CAVES_CLIFFS_1.atOrAbove()) {
+        if (V1_17) {
           // mc 1.17: hand & action are now in an internal wrapper class
           WrappedEnumEntityUseAction useAction = packet.getEnumEntityUseActions().read(0);
           action = useAction.getAction();
@@ -630,7 +735,7 @@ public void onPacketReceiving(@NotNull PacketEvent event) {
           action = packet.getEntityUseActions().read(0);
 
           // the hand is not explicitly send for attacks (always the main hand)
-          if (action != EnumWrappers.EntityUseAction.ATTACK && MinecraftVersion.COMBAT_UPDATE.atOrAbove()) {
+          if (action != EnumWrappers.EntityUseAction.ATTACK && V1_9) {
             // mc 1.9: hand is now a thing
             hand = packet.getHands().read(0);
           }
@@ -655,4 +760,10 @@ public void onPacketReceiving(@NotNull PacketEvent event) {
       }
     }
   }
+
+  @FunctionalInterface
+  private interface PacketWriter {
+
+    void write(@NotNull PacketContainer container, @NotNull Npc<?, ?, ?, ?> npc);
+  }
 }
@@ -24,16 +24,306 @@
 
 package com.github.juliarn.npclib.common;
 
+import com.github.juliarn.npclib.api.Npc;
 import com.github.juliarn.npclib.api.NpcActionController;
+import com.github.juliarn.npclib.api.NpcTracker;
+import com.github.juliarn.npclib.api.Position;
 import com.github.juliarn.npclib.api.flag.NpcFlag;
+import com.github.juliarn.npclib.api.protocol.PlatformPacketAdapter;
+import com.github.juliarn.npclib.api.settings.NpcProfileResolver;
 import com.github.juliarn.npclib.common.flag.CommonNpcFlaggedObject;
+import com.github.juliarn.npclib.common.util.RotationHelper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class CommonNpcActionController extends CommonNpcFlaggedObject implements NpcActionController {
 
+  // the factor applied to the (squared) distance of already visible npcs when selecting the visible npcs
+  private static final double VISIBLE_NPC_DISTANCE_FACTOR = 0.8;
+  private static final long ONE_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+  // the npcs which are known to be in a loaded (active) or unloaded (inactive) chunk, updated by chunk load events
+  private final Map<Npc<?, ?, ?, ?>, Boolean> npcActivationStates = new ConcurrentHashMap<>();
+
+  // the queues of npcs which are waiting to be spawned for a player
+  private final Map<Object, PlayerSpawnQueue<?>> spawnQueues = new ConcurrentHashMap<>();
+
+  // the state of each npc (by entity id) that is visible to a player
+  private final Map<Object, Map<Integer, NpcViewState>> viewStates = new ConcurrentHashMap<>();
+
+  // the (squared) distances of the level of detail tiers
+  private final double nearTierDistance;
+  private final double midTierDistance;
+  private final long nearTierRotationIntervalNanos;
+  private final long midTierRotationIntervalNanos;
+
+  // the maximum amount of npcs a single player is able to see at the same time
+  private final int maxVisibleNpcs;
+  private final int maxSpawnsPerTick;
+
   public CommonNpcActionController(@NotNull Map<NpcFlag<?>, Optional<?>> flags) {
     super(flags);
+    this.maxVisibleNpcs = this.flagValueOrDefault(MAX_VISIBLE_NPCS);
+    this.maxSpawnsPerTick = this.flagValueOrDefault(MAX_SPAWNS_PER_TICK);
+
+    int nearTierDistance = this.flagValueOrDefault(IMITATE_DISTANCE);
+    this.nearTierDistance = nearTierDistance * nearTierDistance;
+    this.nearTierRotationIntervalNanos = this.flagValueOrDefault(ROTATION_INTERVAL) * ONE_TICK_NANOS;
+
+    // the mid tier starts where the near tier ends, it cannot be smaller than the near tier
+    int midTierDistance = Math.max(nearTierDistance, this.flagValueOrDefault(LOD_MID_DISTANCE));
+    this.midTierDistance = midTierDistance * midTierDistance;
+    this.midTierRotationIntervalNanos = this.flagValueOrDefault(LOD_MID_ROTATION_INTERVAL) * ONE_TICK_NANOS;
+  }
+
+  @SuppressWarnings("unchecked")
+  protected static <P> void handleNpcsQuit(
+    @NotNull Collection<? extends Npc<?, P, ?, ?>> npcs,
+    @NotNull P player
+  ) {
+    // npcs usually share their profile resolver, only invalidate each resolver once
+    Set<NpcProfileResolver.Cached<P>> profileResolvers = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Npc<?, P, ?, ?> npc : npcs) {
+      // check if the npc tracks the player which disconnected and stop tracking him if so
+      npc.stopTrackingPlayer(player);
+
+      NpcProfileResolver<P> profileResolver = npc.settings().profileResolver();
+      if (profileResolver instanceof NpcProfileResolver.Cached<?>) {
+        profileResolvers.add((NpcProfileResolver.Cached<P>) profileResolver);
+      }
+    }
+
+    // drop the profiles which were resolved for the player
+    for (NpcProfileResolver.Cached<P> profileResolver : profileResolvers) {
+      profileResolver.invalidatePlayer(player);
+    }
+  }
+
+  protected <N extends Npc<?, ?, ?, ?>> boolean isNpcActive(@NotNull N npc, @NotNull Predicate<N> chunkLoadedCheck) {
+    Boolean active = this.npcActivationStates.get(npc);
+    if (active != null) {
+      return active;
+    }
+
+    // the state of the npc chunk is unknown, only remember loaded chunks as there might be
+    // a reason why the check failed which does not mean that the chunk is unloaded
+    boolean chunkLoaded = chunkLoadedCheck.test(npc);
+    if (chunkLoaded) {
+      this.npcActivationStates.put(npc, Boolean.TRUE);
+    }
+
+    return chunkLoaded;
+  }
+
+  protected void activateNpc(@NotNull Npc<?, ?, ?, ?> npc) {
+    this.npcActivationStates.put(npc, Boolean.TRUE);
+  }
+
+  protected <P> void deactivateNpc(@NotNull Npc<?, P, ?, ?> npc) {
+    this.npcActivationStates.put(npc, Boolean.FALSE);
+
+    // remove the npc for all players that are currently seeing it
+    List<P> trackedPlayers = new ArrayList<>(npc.trackedPlayers());
+    for (P player : trackedPlayers) {
+      npc.stopTrackingPlayer(player);
+    }
+  }
+
+  protected void removeUntrackedActivationStates(@NotNull NpcTracker<?, ?, ?, ?> npcTracker) {
+    // only do the cleanup if there are more states than tracked npcs, which means that some npcs were removed
+    Collection<? extends Npc<?, ?, ?, ?>> trackedNpcs = npcTracker.trackedNpcs();
+    if (this.npcActivationStates.size() > trackedNpcs.size()) {
+      this.npcActivationStates.keySet().removeIf(npc -> !trackedNpcs.contains(npc));
+    }
+  }
+
+  protected <P> void handlePlayerQuit(@NotNull P player) {
+    // drop all spawns which are still queued for the player
+    PlayerSpawnQueue<?> spawnQueue = this.spawnQueues.remove(player);
+    if (spawnQueue != null) {
+      spawnQueue.cancel();
+    }
+
+    // drop the view states of all npcs
+    this.viewStates.remove(player);
+  }
+
+  protected void removeViewState(@NotNull Object player, @NotNull Npc<?, ?, ?, ?> npc) {
+    Map<Integer, NpcViewState> npcStates = this.viewStates.get(player);
+    if (npcStates != null) {
+      npcStates.remove(npc.entityId());
+    }
+  }
+
+  protected <W, P, I, E> void rotateNpcTowards(
+    @NotNull P player,
+    @NotNull Npc<W, P, I, E> npc,
+    @NotNull Position target,
+    double distance
+  ) {
+    // far npcs get no rotation updates at all
+    if (distance > this.midTierDistance || !npc.flagValueOrDefault(Npc.LOOK_AT_PLAYER) || !npc.tracksPlayer(player)) {
+      return;
+    }
+
+    // only send the rotation if the angles changed and the interval of the tier elapsed
+    long rotationInterval = distance > this.nearTierDistance
+      ? this.midTierRotationIntervalNanos
+      : this.nearTierRotationIntervalNanos;
+    NpcViewState viewState = this.viewStates
+      .computeIfAbsent(player, key -> new ConcurrentHashMap<>())
+      .computeIfAbsent(npc.entityId(), key -> new NpcViewState());
+    this.rotateNpc(player, npc, viewState, target, rotationInterval);
+  }
+
+  private <W, P, I, E> void rotateNpc(
+    @NotNull P player,
+    @NotNull Npc<W, P, I, E> npc,
+    @NotNull NpcViewState viewState,
+    @NotNull Position target,
+    long rotationInterval
+  ) {
+    // compute the rotation and the angles that will actually arrive at the client
+    Position npcPosition = npc.position();
+    float yaw = RotationHelper.lookAtYaw(npcPosition, target);
+    float pitch = RotationHelper.lookAtPitch(npcPosition, target);
+    byte yawAngle = RotationHelper.angleToByte(yaw);
+    byte pitchAngle = RotationHelper.angleToByte(pitch);
+
+    // rotations are not sent to players which are not able to keep up with the packets, they are kept pending instead
+    PlatformPacketAdapter<W, P, I, E> packetFactory = npc.platform().packetFactory();
+    boolean canSend = packetFactory.shouldSendCosmeticPackets(player);
+    long result = viewState.offerRotation(rotationInterval, target, yawAngle, pitchAngle, canSend);
+    if (result == NpcViewState.SEND_NOW) {
+      packetFactory.createRotationPacket(yaw, pitch).schedule(player, npc);
+    } else if (result != NpcViewState.NO_ACTION) {
+      // send the latest rotation once the interval elapsed, ensures that the npc ends up looking at the last target
+      int delayTicks = (int) Math.max(1, (result + ONE_TICK_NANOS - 1) / ONE_TICK_NANOS);
+      npc.platform().taskManager().scheduleDelayedAsync(
+        () -> this.flushRotation(player, npc, viewState, rotationInterval),
+        delayTicks);
+    }
+  }
+
+  private <W, P, I, E> void flushRotation(
+    @NotNull P player,
+    @NotNull Npc<W, P, I, E> npc,
+    @NotNull NpcViewState viewState,
+    long rotationInterval
+  ) {
+    // the npc might have been hidden from the player in the meantime
+    Position target = viewState.takePendingTarget();
+    Map<Integer, NpcViewState> npcStates = this.viewStates.get(player);
+    if (target != null && npcStates != null && npcStates.get(npc.entityId()) == viewState && npc.tracksPlayer(player)) {
+      this.rotateNpc(player, npc, viewState, target, rotationInterval);
+    }
+  }
+
+  protected <P> void hideNpc(@NotNull P player, @NotNull Npc<?, P, ?, ?> npc) {
+    // drop the queued spawn, the npc is no longer in range
+    PlayerSpawnQueue<P> spawnQueue = this.spawnQueue(player, false);
+    if (spawnQueue != null) {
+      spawnQueue.dequeue(npc);
+    }
+
+    // this will only do something if the player is already tracked by the npc
+    npc.stopTrackingPlayer(player);
+  }
+
+  @SuppressWarnings("unchecked")
+  protected <P> void hideNpcs(@NotNull P player, @NotNull Collection<? extends Npc<?, P, ?, ?>> npcs) {
+    // hides a whole partition of npcs at once, for example when the player left the world of the npcs
+    PlayerSpawnQueue<P> spawnQueue = this.spawnQueue(player, false);
+    for (Npc<?, P, ?, ?> npc : npcs) {
+      if (spawnQueue != null) {
+        spawnQueue.dequeue(npc);
+      }
+
+      npc.stopTrackingPlayer(player);
+
+      // drop the profile resolved for the player, the quit handling only visits the npcs in the world of the player
+      NpcProfileResolver<P> profileResolver = npc.settings().profileResolver();
+      if (profileResolver instanceof NpcProfileResolver.Cached<?>) {
+        ((NpcProfileResolver.Cached<P>) profileResolver).invalidate(player, npc);
+      }
+    }
+  }
+
+  protected <P, N extends Npc<?, P, ?, ?>> void showNpcs(@NotNull P player, @NotNull Map<N, Double> npcsInRange) {
+    // check if the player would see more npcs than allowed
+    if (npcsInRange.size() <= this.maxVisibleNpcs) {
+      for (N npc : npcsInRange.keySet()) {
+        this.showNpc(player, npc, npcsInRange.get(npc));
+      }
+      return;
+    }
+
+    // only keep the npcs which are shown to the player anyway to not waste the budget
+    List<N> candidates = new ArrayList<>(npcsInRange.size());
+    for (N npc : npcsInRange.keySet()) {
+      if (npc.tracksPlayer(player) || npc.shouldIncludePlayer(player)) {
+        candidates.add(npc);
+      } else {
+        this.hideNpc(player, npc);
+      }
+    }
+
+    // sort the npcs by priority, then by distance. the distance of npcs which are already visible
+    // is slightly reduced, which prevents constant swapping of npcs that have nearly the same distance
+    candidates.sort(Comparator
+      .comparingInt((N npc) -> npc.flagValueOrDefault(Npc.SPAWN_PRIORITY))
+      .reversed()
+      .thenComparingDouble(npc -> {
+        double distance = npcsInRange.get(npc);
+        return npc.tracksPlayer(player) ? distance * VISIBLE_NPC_DISTANCE_FACTOR : distance;
+      }));
+
+    // show the nearest npcs and hide the remaining ones
+    for (int i = 0; i < candidates.size(); i++) {
+      N npc = candidates.get(i);
+      if (i < this.maxVisibleNpcs) {
+        this.showNpc(player, npc, npcsInRange.get(npc));
+      } else {
+        this.hideNpc(player, npc);
+      }
+    }
+  }
+
+  protected <P> void showNpc(@NotNull P player, @NotNull Npc<?, P, ?, ?> npc, double distance) {
+    // nothing to do if the npc is already spawned
+    if (npc.tracksPlayer(player)) {
+      return;
+    }
+
+    // queue the spawn if the npc should be shown to the player, the queue re-prioritizes the npc if already queued
+    PlayerSpawnQueue<P> spawnQueue = this.spawnQueue(player, true);
+    if (npc.shouldIncludePlayer(player)) {
+      spawnQueue.enqueue(npc, distance);
+    } else {
+      spawnQueue.dequeue(npc);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <P> @Nullable PlayerSpawnQueue<P> spawnQueue(@NotNull P player, boolean create) {
+    if (create) {
+      return (PlayerSpawnQueue<P>) this.spawnQueues.computeIfAbsent(
+        player,
+        key -> new PlayerSpawnQueue<>(player, this.maxSpawnsPerTick));
+    } else {
+      return (PlayerSpawnQueue<P>) this.spawnQueues.get(player);
+    }
   }
 }
@@ -26,11 +26,14 @@
 
 import com.github.juliarn.npclib.api.Npc;
 import com.github.juliarn.npclib.api.NpcTracker;
+import com.github.juliarn.npclib.api.PlatformWorldAccessor;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnmodifiableView;
@@ -38,11 +41,27 @@
 public class CommonNpcTracker<W, P, I, E> implements NpcTracker<W, P, I, E> {
 
   protected final Set<Npc<W, P, I, E>> trackedNpcs = Collections.synchronizedSet(new HashSet<>());
+  // the tracked npcs partitioned by their world, handlers usually only need the npcs of one world. the partitions
+  // are keyed by the world identifier to not keep unloaded worlds reachable while npcs are still tracked in them
+  protected final Map<String, Set<Npc<W, P, I, E>>> worldNpcs = new ConcurrentHashMap<>();
+  // the world accessor of the platform, taken from the first tracked npc
+  private volatile PlatformWorldAccessor<W> worldAccessor;
 
   public static @NotNull <W, P, I, E> CommonNpcTracker<W, P, I, E> newNpcTracker() {
     return new CommonNpcTracker<>();
   }
 
+  protected @NotNull String worldId(@NotNull Npc<W, P, I, E> npc) {
+    PlatformWorldAccessor<W> accessor = this.worldAccessor;
+    if (accessor == null) {
+      accessor = npc.platform().worldAccessor();
+      this.worldAccessor = accessor;
+    }
+
+    // intern the identifier, the npcs of a world then share one key instance instead of one string per npc
+    return accessor.extractWorldIdentifier(npc.world()).intern();
+  }
+
   @Override
   public @Nullable Npc<W, P, I, E> npcById(int entityId) {
     for (Npc<W, P, I, E> trackedNpc : this.trackedNpcs) {
@@ -67,16 +86,45 @@
 
   @Override
   public void trackNpc(@NotNull Npc<W, P, I, E> npc) {
-    this.trackedNpcs.add(npc);
+    if (this.trackedNpcs.add(npc)) {
+      // register the npc into the partition of its world
+      this.worldNpcs.compute(this.worldId(npc), (worldId, npcs) -> {
+        Set<Npc<W, P, I, E>> partition = npcs;
+        if (partition == null) {
+          partition = ConcurrentHashMap.newKeySet();
+        }
+
+        partition.add(npc);
+        return partition;
+      });
+    }
   }
 
   @Override
   public void stopTrackingNpc(@NotNull Npc<W, P, I, E> npc) {
-    this.trackedNpcs.remove(npc);
+    if (this.trackedNpcs.remove(npc)) {
+      // remove the npc from the partition of its world, drop the partition if there are no more npcs in it
+      this.worldNpcs.computeIfPresent(this.worldId(npc), (worldId, npcs) -> {
+        npcs.remove(npc);
+        return npcs.isEmpty() ? null : npcs;
+      });
+    }
   }
 
   @Override
   public @UnmodifiableView @NotNull Collection<Npc<W, P, I, E>> trackedNpcs() {
     return Collections.unmodifiableCollection(this.trackedNpcs);
   }
+
+  @Override
+  public @UnmodifiableView @NotNull Collection<Npc<W, P, I, E>> trackedNpcs(@NotNull W world) {
+    // no npc was tracked yet if the world accessor is not known
+    PlatformWorldAccessor<W> accessor = this.worldAccessor;
+    if (accessor == null) {
+      return Collections.emptySet();
+    }
+
+    Set<Npc<W, P, I, E>> npcs = this.worldNpcs.get(accessor.extractWorldIdentifier(world));
+    return npcs == null ? Collections.emptySet() : Collections.unmodifiableSet(npcs);
+  }
 }
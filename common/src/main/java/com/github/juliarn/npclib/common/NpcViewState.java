@@ -0,0 +1,95 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common;
+
+import com.github.juliarn.npclib.api.Position;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+final class NpcViewState {
+
+  // returned by offerRotation if the rotation should be sent right away
+  static final long SEND_NOW = 0;
+  // returned by offerRotation if there is nothing to do (rotation unchanged or a flush is already scheduled)
+  static final long NO_ACTION = -1;
+
+  // the time (nano time) when the last rotation update was sent to the player
+  private long lastRotationNanos = Long.MIN_VALUE;
+
+  // the last protocol angles which were sent to the player
+  private byte lastYaw;
+  private byte lastPitch;
+
+  // the latest position to look at which could not be sent yet, sent by a scheduled flush
+  private Position pendingTarget;
+  private boolean flushScheduled;
+
+  // returns SEND_NOW if the rotation should be sent now, NO_ACTION if nothing should be done or the
+  // nanos after which the rotation should be flushed (the caller is responsible for scheduling the flush)
+  public long offerRotation(long minIntervalNanos, @NotNull Position target, byte yaw, byte pitch, boolean canSend) {
+    long now = System.nanoTime();
+    synchronized (this) {
+      long waitNanos = 0;
+      if (this.lastRotationNanos != Long.MIN_VALUE) {
+        // check if the rotation would be visible for the player at all, drop an older pending rotation as well
+        if (this.lastYaw == yaw && this.lastPitch == pitch) {
+          this.pendingTarget = null;
+          return NO_ACTION;
+        }
+
+        // check how long to wait until the interval since the last rotation update elapsed
+        waitNanos = minIntervalNanos - (now - this.lastRotationNanos);
+      }
+
+      // send the rotation right away if possible
+      if (waitNanos <= 0 && canSend) {
+        this.pendingTarget = null;
+        this.lastRotationNanos = now;
+        this.lastYaw = yaw;
+        this.lastPitch = pitch;
+        return SEND_NOW;
+      }
+
+      // keep the latest rotation, it is sent once the interval elapsed or the player is able to receive it
+      this.pendingTarget = target;
+      if (this.flushScheduled) {
+        return NO_ACTION;
+      }
+
+      this.flushScheduled = true;
+      return Math.max(1, waitNanos);
+    }
+  }
+
+  // returns the pending target or null if there is none, allows to schedule a new flush
+  public @Nullable Position takePendingTarget() {
+    synchronized (this) {
+      Position target = this.pendingTarget;
+      this.pendingTarget = null;
+      this.flushScheduled = false;
+      return target;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common;
+
+import com.github.juliarn.npclib.api.Npc;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+
+final class PlayerSpawnQueue<P> {
+
+  private final P player;
+  private final int spawnsPerTick;
+
+  // the queued npcs mapped to their last known distance to the player, guarded by this queue
+  private final Map<Npc<?, P, ?, ?>, Double> queuedNpcs = new HashMap<>();
+  private volatile boolean cancelled;
+  private boolean drainScheduled;
+
+  public PlayerSpawnQueue(@NotNull P player, int spawnsPerTick) {
+    this.player = player;
+    this.spawnsPerTick = spawnsPerTick;
+  }
+
+  private static int priority(@NotNull Npc<?, ?, ?, ?> npc) {
+    return npc.flagValueOrDefault(Npc.SPAWN_PRIORITY);
+  }
+
+  public void enqueue(@NotNull Npc<?, P, ?, ?> npc, double distance) {
+    synchronized (this) {
+      if (this.cancelled) {
+        return;
+      }
+
+      // updates the distance of the npc if it is already queued
+      this.queuedNpcs.put(npc, distance);
+      if (this.drainScheduled) {
+        return;
+      }
+
+      this.drainScheduled = true;
+    }
+
+    // start draining the queue in the next tick, gives the caller the chance to queue all npcs in range first
+    npc.platform().taskManager().scheduleDelayedAsync(this::drain, 1);
+  }
+
+  public void dequeue(@NotNull Npc<?, P, ?, ?> npc) {
+    synchronized (this) {
+      this.queuedNpcs.remove(npc);
+    }
+  }
+
+  public void cancel() {
+    synchronized (this) {
+      this.cancelled = true;
+      this.queuedNpcs.clear();
+    }
+  }
+
+  private void drain() {
+    List<Npc<?, P, ?, ?>> npcsToSpawn;
+    synchronized (this) {
+      if (this.queuedNpcs.isEmpty()) {
+        this.drainScheduled = false;
+        return;
+      }
+
+      // sort the queued npcs by priority, then by their distance to the player
+      List<Map.Entry<Npc<?, P, ?, ?>, Double>> entries = new ArrayList<>(this.queuedNpcs.entrySet());
+      entries.sort(Comparator
+        .comparingInt((Map.Entry<Npc<?, P, ?, ?>, Double> entry) -> priority(entry.getKey()))
+        .reversed()
+        .thenComparingDouble(Map.Entry::getValue));
+
+      // take the npcs which should be spawned in this tick
+      int spawns = Math.min(this.spawnsPerTick, entries.size());
+      npcsToSpawn = new ArrayList<>(spawns);
+      for (int i = 0; i < spawns; i++) {
+        Npc<?, P, ?, ?> npc = entries.get(i).getKey();
+        this.queuedNpcs.remove(npc);
+        npcsToSpawn.add(npc);
+      }
+    }
+
+    // spawn the npcs on the thread which owns them, the show events are posted during the spawn and
+    // handlers might access the world of the npc
+    for (Npc<?, P, ?, ?> npc : npcsToSpawn) {
+      npc.platform().taskManager().scheduleForNpc(npc, () -> this.spawn(npc));
+    }
+
+    // continue with the remaining npcs in the next tick
+    npcsToSpawn.get(0).platform().taskManager().scheduleDelayedAsync(this::drain, 1);
+  }
+
+  private void spawn(@NotNull Npc<?, P, ?, ?> npc) {
+    // stop if the player quit in the meantime
+    if (this.cancelled) {
+      return;
+    }
+
+    // the npc might have been removed or the tracking rule might have changed while the npc was queued
+    if (npc.npcTracker().npcById(npc.entityId()) == npc && npc.shouldIncludePlayer(this.player)) {
+      npc.forceTrackPlayer(this.player);
+    }
+  }
+}
@@ -35,17 +35,21 @@
 import com.github.juliarn.npclib.api.protocol.enums.ItemSlot;
 import com.github.juliarn.npclib.api.protocol.enums.PlayerInfoAction;
 import com.github.juliarn.npclib.api.protocol.meta.EntityMetadataFactory;
+import com.github.juliarn.npclib.api.settings.NpcProfileResolver;
 import com.github.juliarn.npclib.api.settings.NpcSettings;
 import com.github.juliarn.npclib.api.util.Util;
 import com.github.juliarn.npclib.common.event.DefaultHideNpcEvent;
 import com.github.juliarn.npclib.common.event.DefaultShowNpcEvent;
 import com.github.juliarn.npclib.common.flag.CommonNpcFlaggedObject;
+import com.github.juliarn.npclib.common.player.PlayerSlotRegistry;
+import com.github.juliarn.npclib.common.util.RotationHelper;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.UnmodifiableView;
 
@@ -60,8 +64,15 @@
   protected final Platform<W, P, I, E> platform;
   protected final NpcSettings<P> npcSettings;
 
-  protected final Set<P> trackedPlayers = Collections.synchronizedSet(new HashSet<>());
-  protected final Set<P> includedPlayers = Collections.synchronizedSet(new HashSet<>());
+  // dense bitsets indexed by the player slots: membership checks are non-blocking and iteration is safe
+  protected final Set<P> trackedPlayers;
+  protected final Set<P> includedPlayers;
+
+  // the current metadata and equipment of the npc, changes made in the same tick are sent as one packet
+  protected final NpcMetadataState<W, P, I, E> metadataState = new NpcMetadataState<>(this);
+  protected final NpcEquipmentState<W, P, I, E> equipmentState = new NpcEquipmentState<>(this);
+  // the profiles which are resolved for players the npc is currently spawning for
+  protected final Map<P, CompletableFuture<Profile.Resolved>> spawnProfiles = new ConcurrentHashMap<>();
 
   public CommonNpc(
     @NotNull Map<NpcFlag<?>, Optional<?>> flags,
@@ -70,6 +81,7 @@ public CommonNpc(
     @NotNull W world,
     @NotNull Position pos,
     @NotNull Platform<W, P, I, E> platform,
+    @NotNull PlayerSlotRegistry<P> playerRegistry,
     @NotNull NpcSettings<P> npcSettings
   ) {
     super(flags);
@@ -79,6 +91,8 @@ public CommonNpc(
     this.pos = pos;
     this.platform = platform;
     this.npcSettings = npcSettings;
+    this.trackedPlayers = playerRegistry.newPlayerSet();
+    this.includedPlayers = playerRegistry.newPlayerSet();
   }
 
   @Override
@@ -155,6 +169,12 @@ public boolean includesPlayer(@NotNull P player) {
       this.stopTrackingPlayer((P) player);
     }
 
+    // drop all profiles which were resolved for this npc
+    NpcProfileResolver<P> profileResolver = this.npcSettings.profileResolver();
+    if (profileResolver instanceof NpcProfileResolver.Cached<?>) {
+      ((NpcProfileResolver.Cached<P>) profileResolver).invalidateNpc(this);
+    }
+
     // for chaining
     return this;
   }
@@ -195,18 +215,59 @@ public boolean tracksPlayer(@NotNull P player) {
         return this;
       }
 
+      // resolve the profile once, the player info packet is sent using the same profile future
+      CompletableFuture<Profile.Resolved> profile = this.npcSettings.profileResolver().resolveNpcProfile(player, this);
+      this.spawnProfiles.put(player, profile);
+
       // send the player info packet & schedule the actual add of the
       // player entity into the target world
       this.platform.packetFactory().createPlayerInfoPacket(PlayerInfoAction.ADD_PLAYER).schedule(player, this);
-      this.platform.taskManager().scheduleDelayedAsync(() -> {
-        this.platform.packetFactory().createEntitySpawnPacket().schedule(player, this);
-        this.platform.eventManager().post(DefaultShowNpcEvent.post(this, player));
-      }, 10);
+
+      // the info packet is only sent once the profile is resolved, start the spawn delay after that
+      // to ensure that the spawn packet is not sent before the info packet
+      profile.whenComplete((resolved, exception) -> {
+        this.spawnProfiles.remove(player, profile);
+        if (exception == null) {
+          this.platform.taskManager().scheduleDelayedForNpc(this, () -> this.spawnForPlayer(player), 10);
+          return;
+        }
+
+        // the npc can't be spawned without a profile, stop tracking the player to allow
+        // the next tracking attempt to retry the spawn
+        this.trackedPlayers.remove(player);
+        this.metadataState.removePlayer(player);
+        this.equipmentState.removePlayer(player);
+        this.platform.logger().error(
+          "Unable to resolve the profile of npc " + this.entityId + " for a player, stopped tracking the player",
+          exception);
+      });
     }
 
     return this;
   }
 
+  public @NotNull CompletableFuture<Profile.Resolved> resolveProfile(@NotNull P player) {
+    // reuse the profile which is resolved for the spawn, if the npc is currently spawning for the player
+    CompletableFuture<Profile.Resolved> spawnProfile = this.spawnProfiles.get(player);
+    if (spawnProfile != null) {
+      return spawnProfile;
+    }
+
+    return this.npcSettings.profileResolver().resolveNpcProfile(player, this);
+  }
+
+  protected void spawnForPlayer(@NotNull P player) {
+    // the player might have been untracked while the spawn was pending
+    if (!this.trackedPlayers.contains(player)) {
+      return;
+    }
+
+    this.platform.packetFactory().createEntitySpawnPacket().schedule(player, this);
+    this.metadataState.replay(player);
+    this.equipmentState.replay(player);
+    this.platform.eventManager().post(DefaultShowNpcEvent.post(this, player));
+  }
+
   @Override
   public @NotNull Npc<W, P, I, E> stopTrackingPlayer(@NotNull P player) {
     // check if the player was previously tracked
@@ -222,6 +283,10 @@ public boolean tracksPlayer(@NotNull P player) {
         return this;
       }
 
+      // drop the metadata changes which were not sent yet, the full state is sent when the npc is spawned again
+      this.metadataState.removePlayer(player);
+      this.equipmentState.removePlayer(player);
+
       // schedule an entity remove (the player list change is not needed normally, but to make sure that the npc is gone)
       this.platform.packetFactory().createEntityRemovePacket().schedule(player, this);
       this.platform.packetFactory().createPlayerInfoPacket(PlayerInfoAction.REMOVE_PLAYER).schedule(player, this);
@@ -236,23 +301,9 @@ public boolean tracksPlayer(@NotNull P player) {
 
   @Override
   public @NotNull NpcSpecificOutboundPacket<W, P, I, E> lookAt(@NotNull Position position) {
-    double diffX = position.x() - this.pos.x();
-    double diffY = position.y() - this.pos.y();
-    double diffZ = position.z() - this.pos.z();
-
-    double distanceXZ = Math.sqrt(diffX * diffX + diffZ * diffZ);
-    double distanceY = Math.sqrt(distanceXZ * distanceXZ + diffY * diffY);
-
-    double yaw = Math.toDegrees(Math.acos(diffX / distanceXZ));
-    double pitch = Math.toDegrees(Math.acos(diffY / distanceY)) - 90;
-
-    // correct yaw according to difference
-    if (diffZ < 0) {
-      yaw += Math.abs(180 - yaw) * 2;
-    }
-    yaw -= 90;
-
-    return this.platform.packetFactory().createRotationPacket((float) yaw, (float) pitch).toSpecific(this);
+    float yaw = RotationHelper.lookAtYaw(this.pos, position);
+    float pitch = RotationHelper.lookAtPitch(this.pos, position);
+    return this.platform.packetFactory().createRotationPacket(yaw, pitch).toSpecific(this);
   }
 
   @Override
@@ -262,7 +313,10 @@ public boolean tracksPlayer(@NotNull P player) {
 
   @Override
   public @NotNull NpcSpecificOutboundPacket<W, P, I, E> changeItem(@NotNull ItemSlot slot, @NotNull I item) {
-    return this.platform.packetFactory().createEquipmentPacket(slot, item).toSpecific(this);
+    // record the change, all slots changed in the current tick are sent in one packet
+    return new NpcStateChangePacket<>(
+      this,
+      (players, persistent) -> this.equipmentState.update(players, slot, item, persistent));
   }
 
   @Override
@@ -270,7 +324,10 @@ public boolean tracksPlayer(@NotNull P player) {
     @NotNull EntityMetadataFactory<T, O> metadata,
     @NotNull T value
   ) {
-    return this.platform.packetFactory().createEntityMetaPacket(metadata, value).toSpecific(this);
+    // record the change, it is sent out with all other changes of the current tick
+    return new NpcStateChangePacket<>(
+      this,
+      (players, persistent) -> this.metadataState.update(players, metadata, value, persistent));
   }
 
   @Override
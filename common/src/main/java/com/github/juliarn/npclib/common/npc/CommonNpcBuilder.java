@@ -31,6 +31,7 @@
 import com.github.juliarn.npclib.api.profile.ProfileResolver;
 import com.github.juliarn.npclib.api.settings.NpcSettings;
 import com.github.juliarn.npclib.common.flag.CommonNpcFlaggedBuilder;
+import com.github.juliarn.npclib.common.player.PlayerSlotRegistry;
 import com.github.juliarn.npclib.common.settings.CommonNpcSettingsBuilder;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
@@ -44,6 +45,7 @@
   implements Npc.Builder<W, P, I, E> {
 
   protected final Platform<W, P, I, E> platform;
+  protected final PlayerSlotRegistry<P> playerRegistry;
 
   protected int entityId = ThreadLocalRandom.current().nextInt(0, Integer.MAX_VALUE);
 
@@ -53,8 +55,9 @@
   protected Profile.Resolved profile;
   protected NpcSettings<P> npcSettings;
 
-  public CommonNpcBuilder(@NotNull Platform<W, P, I, E> platform) {
+  public CommonNpcBuilder(@NotNull Platform<W, P, I, E> platform, @NotNull PlayerSlotRegistry<P> playerRegistry) {
     this.platform = platform;
+    this.playerRegistry = playerRegistry;
   }
 
   @Override
@@ -130,6 +133,7 @@ public CommonNpcBuilder(@NotNull Platform<W, P, I, E> platform) {
       Objects.requireNonNull(this.world, "world and position must be given"),
       Objects.requireNonNull(this.pos, "world and position must be given"),
       this.platform,
+      this.playerRegistry,
       Objects.requireNonNull(this.npcSettings, "npc settings must be given"));
   }
 
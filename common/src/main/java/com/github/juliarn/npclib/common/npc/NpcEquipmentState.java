@@ -0,0 +1,142 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common.npc;
+
+import com.github.juliarn.npclib.api.Npc;
+import com.github.juliarn.npclib.api.protocol.OutboundPacket;
+import com.github.juliarn.npclib.api.protocol.enums.ItemSlot;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+
+final class NpcEquipmentState<W, P, I, E> {
+
+  private final Npc<W, P, I, E> npc;
+
+  // the equipment sent to all tracked players (replayed when the npc gets spawned for a player), the equipment
+  // sent to each player and the changes per player that were not sent yet. all guarded by this state
+  private final Map<ItemSlot, I> equipment = new EnumMap<>(ItemSlot.class);
+  private final Map<P, Map<ItemSlot, I>> playerEquipment = new HashMap<>();
+  private final Map<P, Map<ItemSlot, I>> pendingChanges = new HashMap<>();
+
+  // the packet containing the full equipment, holds the converted items for the spawn replay
+  private OutboundPacket<W, P, I, E> equipmentPacket;
+
+  public NpcEquipmentState(@NotNull Npc<W, P, I, E> npc) {
+    this.npc = npc;
+  }
+
+  public void update(@NotNull Collection<P> players, @NotNull ItemSlot slot, @NotNull I item, boolean persistent) {
+    boolean scheduleFlush;
+    synchronized (this) {
+      // only remember changes which are sent to all players, changes for specific players must not be
+      // replayed to other players
+      if (persistent && !Objects.equals(this.equipment.put(slot, item), item)) {
+        this.equipmentPacket = null;
+      }
+
+      scheduleFlush = this.pendingChanges.isEmpty();
+      for (P player : players) {
+        // the equipment is replayed when the npc gets spawned for the player
+        if (!this.npc.tracksPlayer(player)) {
+          continue;
+        }
+
+        // suppress identical re-sends of an item which is already shown to the player (or about to be sent)
+        Map<ItemSlot, I> shownEquipment = this.playerEquipment.computeIfAbsent(
+          player,
+          key -> new EnumMap<>(ItemSlot.class));
+        if (Objects.equals(shownEquipment.put(slot, item), item)) {
+          continue;
+        }
+
+        this.pendingChanges.computeIfAbsent(player, key -> new EnumMap<>(ItemSlot.class)).put(slot, item);
+      }
+
+      // schedule the flush if these are the first changes in this tick
+      scheduleFlush &= !this.pendingChanges.isEmpty();
+    }
+
+    if (scheduleFlush) {
+      this.npc.platform().taskManager().scheduleDelayedAsync(this::flush, 1);
+    }
+  }
+
+  public void replay(@NotNull P player) {
+    OutboundPacket<W, P, I, E> equipmentPacket;
+    synchronized (this) {
+      if (this.equipment.isEmpty()) {
+        return;
+      }
+
+      // the player sees the shared equipment after the replay
+      this.playerEquipment.put(player, new EnumMap<>(this.equipment));
+
+      // re-use the previously created packet if the equipment did not change since
+      equipmentPacket = this.equipmentPacket;
+      if (equipmentPacket == null) {
+        Map<ItemSlot, I> equipment = new EnumMap<>(this.equipment);
+        equipmentPacket = this.equipmentPacket = this.npc.platform().packetFactory().createEquipmentPacket(equipment);
+      }
+    }
+
+    equipmentPacket.schedule(player, this.npc);
+  }
+
+  public void removePlayer(@NotNull P player) {
+    synchronized (this) {
+      // the equipment is replayed when the npc gets spawned again
+      this.playerEquipment.remove(player);
+      this.pendingChanges.remove(player);
+    }
+  }
+
+  private void flush() {
+    Map<Map<ItemSlot, I>, List<P>> changes = new HashMap<>();
+    synchronized (this) {
+      // group the players which receive the same changes, usually all players receive the same changes
+      for (Map.Entry<P, Map<ItemSlot, I>> entry : this.pendingChanges.entrySet()) {
+        changes.computeIfAbsent(entry.getValue(), key -> new ArrayList<>()).add(entry.getKey());
+      }
+
+      this.pendingChanges.clear();
+    }
+
+    // all changes of the tick are sent in one packet, the items are only converted once for all players
+    for (Map.Entry<Map<ItemSlot, I>, List<P>> entry : changes.entrySet()) {
+      OutboundPacket<W, P, I, E> packet = this.npc.platform().packetFactory().createEquipmentPacket(entry.getKey());
+      for (P player : entry.getValue()) {
+        if (this.npc.tracksPlayer(player)) {
+          packet.schedule(player, this.npc);
+        }
+      }
+    }
+  }
+}
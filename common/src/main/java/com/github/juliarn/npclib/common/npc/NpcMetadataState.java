@@ -0,0 +1,134 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common.npc;
+
+import com.github.juliarn.npclib.api.Npc;
+import com.github.juliarn.npclib.api.protocol.meta.EntityMetadata;
+import com.github.juliarn.npclib.api.protocol.meta.EntityMetadataFactory;
+import com.github.juliarn.npclib.common.util.EntityMetadataHelper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+
+final class NpcMetadataState<W, P, I, E> {
+
+  private final Npc<W, P, I, E> npc;
+
+  // the last metadata value per index sent to all tracked players, replayed when the npc gets spawned for a player
+  private final Map<Integer, EntityMetadata<?>> metadata = new ConcurrentHashMap<>();
+  // the metadata changes per player that were not sent yet, the maps are guarded by themselves
+  private final Map<P, Map<Integer, EntityMetadata<?>>> pendingChanges = new ConcurrentHashMap<>();
+
+  public NpcMetadataState(@NotNull Npc<W, P, I, E> npc) {
+    this.npc = npc;
+  }
+
+  public <T> void update(
+    @NotNull Collection<P> players,
+    @NotNull EntityMetadataFactory<T, ?> metadataFactory,
+    @NotNull T value,
+    boolean persistent
+  ) {
+    // create the metadata entries which are available on the current version
+    List<EntityMetadata<?>> entries = EntityMetadataHelper.createAvailableMetadata(
+      metadataFactory,
+      value,
+      this.npc.platform().versionAccessor());
+    if (entries.isEmpty()) {
+      return;
+    }
+
+    // only remember changes which are sent to all players, changes for specific players must not be
+    // replayed to other players
+    if (persistent) {
+      for (EntityMetadata<?> entry : entries) {
+        this.metadata.put(entry.index(), entry);
+      }
+    }
+
+    // register the change for the players, schedule the flush if this is the first change in this tick
+    for (P player : players) {
+      if (this.registerChanges(player, entries)) {
+        this.npc.platform().taskManager().scheduleDelayedAsync(() -> this.flush(player), 1);
+      }
+    }
+  }
+
+  public void replay(@NotNull P player) {
+    // send the full metadata state in one packet
+    Collection<EntityMetadata<?>> metadata = new ArrayList<>(this.metadata.values());
+    if (!metadata.isEmpty()) {
+      this.npc.platform().packetFactory().createEntityMetaPacket(metadata).schedule(player, this.npc);
+    }
+  }
+
+  public void removePlayer(@NotNull P player) {
+    // the changes are replayed when the npc gets spawned again
+    this.pendingChanges.remove(player);
+  }
+
+  private boolean registerChanges(@NotNull P player, @NotNull List<EntityMetadata<?>> entries) {
+    while (true) {
+      Map<Integer, EntityMetadata<?>> changes = this.pendingChanges.computeIfAbsent(
+        player,
+        key -> new LinkedHashMap<>());
+      synchronized (changes) {
+        // the changes were flushed while we were waiting for the lock, retry with a new map
+        if (this.pendingChanges.get(player) != changes) {
+          continue;
+        }
+
+        boolean firstChange = changes.isEmpty();
+        for (EntityMetadata<?> entry : entries) {
+          changes.put(entry.index(), entry);
+        }
+
+        return firstChange;
+      }
+    }
+  }
+
+  private void flush(@NotNull P player) {
+    Map<Integer, EntityMetadata<?>> changes = this.pendingChanges.get(player);
+    if (changes == null) {
+      return;
+    }
+
+    Collection<EntityMetadata<?>> metadata;
+    synchronized (changes) {
+      this.pendingChanges.remove(player, changes);
+      metadata = new ArrayList<>(changes.values());
+    }
+
+    // the metadata is replayed when the npc is spawned for the player
+    if (this.npc.tracksPlayer(player)) {
+      this.npc.platform().packetFactory().createEntityMetaPacket(metadata).schedule(player, this.npc);
+    }
+  }
+}
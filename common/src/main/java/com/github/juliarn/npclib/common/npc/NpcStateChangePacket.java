@@ -0,0 +1,75 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common.npc;
+
+import com.github.juliarn.npclib.api.Npc;
+import com.github.juliarn.npclib.api.protocol.NpcSpecificOutboundPacket;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+
+final class NpcStateChangePacket<W, P, I, E> implements NpcSpecificOutboundPacket<W, P, I, E> {
+
+  private final Npc<W, P, I, E> target;
+  private final StateChange<P> stateChange;
+
+  public NpcStateChangePacket(@NotNull Npc<W, P, I, E> target, @NotNull StateChange<P> stateChange) {
+    this.target = target;
+    this.stateChange = stateChange;
+  }
+
+  @Override
+  public @NotNull Npc<W, P, I, E> npc() {
+    return this.target;
+  }
+
+  @Override
+  public void scheduleForTracked() {
+    // changes sent to all tracked players become part of the npc state, which is replayed to players the npc spawns for
+    this.stateChange.apply(this.target.trackedPlayers(), true);
+  }
+
+  @Override
+  public void schedule(@NotNull P player) {
+    this.stateChange.apply(Collections.singleton(player), false);
+  }
+
+  @Override
+  public void schedule(@NotNull Collection<P> players) {
+    this.stateChange.apply(players, false);
+  }
+
+  @Override
+  public void schedule(@NotNull Function<Npc<W, P, I, E>, Collection<P>> extractor) {
+    this.stateChange.apply(extractor.apply(this.target), false);
+  }
+
+  @FunctionalInterface
+  interface StateChange<P> {
+
+    void apply(@NotNull Collection<P> players, boolean persistent);
+  }
+}
@@ -36,6 +36,7 @@
 import com.github.juliarn.npclib.api.profile.ProfileResolver;
 import com.github.juliarn.npclib.api.protocol.PlatformPacketAdapter;
 import com.github.juliarn.npclib.common.npc.CommonNpcBuilder;
+import com.github.juliarn.npclib.common.player.PlayerSlotRegistry;
 import java.util.Optional;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -54,6 +55,8 @@
   protected final PlatformWorldAccessor<W> worldAccessor;
   protected final PlatformPacketAdapter<W, P, I, E> packetAdapter;
 
+  protected final PlayerSlotRegistry<P> playerRegistry = new PlayerSlotRegistry<>();
+
   public CommonPlatform(
     boolean debug,
     @NotNull E extension,
@@ -115,7 +118,7 @@ public boolean debug() {
 
   @Override
   public @NotNull Npc.Builder<W, P, I, E> newNpcBuilder() {
-    return new CommonNpcBuilder<>(this);
+    return new CommonNpcBuilder<>(this, this.playerRegistry);
   }
 
   @Override
@@ -142,4 +145,8 @@ public boolean debug() {
   public @NotNull Optional<NpcActionController> actionController() {
     return Optional.ofNullable(this.actionController);
   }
+
+  public @NotNull PlayerSlotRegistry<P> playerRegistry() {
+    return this.playerRegistry;
+  }
 }
@@ -0,0 +1,178 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common.player;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public final class PlayerSlotRegistry<P> {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final Map<P, Integer> slots = new ConcurrentHashMap<>();
+
+  // platforms don't re-use player objects after a disconnect, released players can never get a slot again.
+  // the entries are removed once the player object was collected. only accessed while holding the lock of this registry
+  private final Map<P, Boolean> releasedPlayers = new WeakHashMap<>();
+
+  // only modified while holding the lock of this registry, reads are lock-free
+  private final BitSet usedSlots = new BitSet();
+  private volatile AtomicReferenceArray<P> players = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+  // the sets which contain the player of each slot, the slot is freed once no set contains it anymore. the sets
+  // are weakly referenced to not keep the sets of removed npcs alive. only accessed while holding the lock of this
+  // registry
+  private List<WeakReference<PlayerSlotSet<P>>>[] slotSets = newSlotSets(INITIAL_CAPACITY);
+
+  @SuppressWarnings("unchecked")
+  private static @NotNull <P> List<WeakReference<PlayerSlotSet<P>>>[] newSlotSets(int capacity) {
+    return new List[capacity];
+  }
+
+  public @NotNull PlayerSlotSet<P> newPlayerSet() {
+    return new PlayerSlotSet<>(this);
+  }
+
+  public int slot(@NotNull Object player) {
+    Integer slot = this.slots.get(player);
+    return slot == null ? -1 : slot;
+  }
+
+  public @Nullable P player(int slot) {
+    AtomicReferenceArray<P> players = this.players;
+    return slot >= 0 && slot < players.length() ? players.get(slot) : null;
+  }
+
+  // marks the given player as released. the player is removed from all sets, the slot is freed once
+  // the last set dropped the player. this should be called after all other quit handling is done, as
+  // the sets no longer report the player as a member once this method was called
+  public void releaseSlot(@NotNull P player) {
+    // remove the slot mapping first to prevent further use of the slot, the player can't be added to
+    // a set anymore once it was released
+    int slot;
+    List<PlayerSlotSet<P>> playerSets = new ArrayList<>();
+    synchronized (this) {
+      this.releasedPlayers.put(player, Boolean.TRUE);
+      Integer assignedSlot = this.slots.remove(player);
+      if (assignedSlot == null) {
+        return;
+      }
+
+      // collect the sets which still contain the player, the slot can be freed directly if there are none
+      slot = assignedSlot;
+      Iterator<WeakReference<PlayerSlotSet<P>>> iterator = this.slotSets[slot].iterator();
+      while (iterator.hasNext()) {
+        PlayerSlotSet<P> playerSet = iterator.next().get();
+        if (playerSet == null) {
+          iterator.remove();
+        } else {
+          playerSets.add(playerSet);
+        }
+      }
+
+      if (playerSets.isEmpty()) {
+        this.freeSlot(slot);
+        return;
+      }
+    }
+
+    // remove the player from the sets containing it, each set drops its reference to the slot
+    for (PlayerSlotSet<P> playerSet : playerSets) {
+      playerSet.removeSlot(slot, player);
+    }
+  }
+
+  synchronized int retainSlot(@NotNull P player, @NotNull PlayerSlotSet<P> playerSet) {
+    // released players are not able to join a set again, for example when a queued spawn races with the quit
+    if (this.releasedPlayers.containsKey(player)) {
+      return -1;
+    }
+
+    // use the slot which is already assigned to the player, or the lowest free slot to keep the slots dense
+    Integer slot = this.slots.get(player);
+    if (slot == null) {
+      slot = this.usedSlots.nextClearBit(0);
+      this.usedSlots.set(slot);
+
+      // grow the player array if needed
+      AtomicReferenceArray<P> players = this.players;
+      if (slot >= players.length()) {
+        AtomicReferenceArray<P> newPlayers = new AtomicReferenceArray<>(players.length() << 1);
+        for (int i = 0; i < players.length(); i++) {
+          newPlayers.set(i, players.get(i));
+        }
+
+        this.players = players = newPlayers;
+        this.slotSets = Arrays.copyOf(this.slotSets, newPlayers.length());
+      }
+
+      players.set(slot, player);
+      this.slots.put(player, slot);
+      this.slotSets[slot] = new ArrayList<>();
+    }
+
+    this.slotSets[slot].add(new WeakReference<>(playerSet));
+    return slot;
+  }
+
+  synchronized void releaseReference(int slot, @NotNull PlayerSlotSet<P> playerSet) {
+    // remove the reference of the given set and the ones of collected sets
+    List<WeakReference<PlayerSlotSet<P>>> playerSets = this.slotSets[slot];
+    if (playerSets == null) {
+      return;
+    }
+
+    playerSets.removeIf(reference -> {
+      PlayerSlotSet<P> referencedSet = reference.get();
+      return referencedSet == null || referencedSet == playerSet;
+    });
+
+    // free the slot once no set references it anymore
+    if (playerSets.isEmpty()) {
+      P player = this.players.get(slot);
+      if (player != null) {
+        this.slots.remove(player, slot);
+      }
+
+      this.freeSlot(slot);
+    }
+  }
+
+  private void freeSlot(int slot) {
+    this.players.set(slot, null);
+    this.slotSets[slot] = null;
+    this.usedSlots.clear(slot);
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common.player;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.jetbrains.annotations.NotNull;
+
+public final class PlayerSlotSet<P> extends AbstractSet<P> {
+
+  private static final long[] EMPTY_WORDS = new long[0];
+
+  private final PlayerSlotRegistry<P> registry;
+
+  // copy-on-write bitset indexed by the player slots, modified while holding the lock of this set.
+  // each set bit holds a reference to the slot in the registry, the slot is freed when the last reference is dropped
+  private volatile long[] words = EMPTY_WORDS;
+
+  PlayerSlotSet(@NotNull PlayerSlotRegistry<P> registry) {
+    this.registry = registry;
+  }
+
+  private static boolean isSet(long[] words, int slot) {
+    int wordIndex = slot >> 6;
+    return wordIndex < words.length && (words[wordIndex] & (1L << slot)) != 0;
+  }
+
+  private static int nextSetSlot(long[] words, int fromSlot) {
+    for (int wordIndex = fromSlot >> 6; wordIndex < words.length; wordIndex++) {
+      // mask out the slots before the start slot in the first word
+      long word = words[wordIndex];
+      if (wordIndex == fromSlot >> 6) {
+        word &= -1L << fromSlot;
+      }
+
+      if (word != 0) {
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+      }
+    }
+
+    return -1;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    int slot = o == null ? -1 : this.registry.slot(o);
+    return slot >= 0 && isSet(this.words, slot);
+  }
+
+  @Override
+  public boolean add(@NotNull P player) {
+    synchronized (this) {
+      // check if the set already contains the player
+      int slot = this.registry.slot(player);
+      if (slot >= 0 && isSet(this.words, slot)) {
+        return false;
+      }
+
+      // register this set as a holder of the player slot, fails if the player was already released.
+      // a concurrent release removes the player from this set once the lock of this set is released
+      slot = this.registry.retainSlot(player, this);
+      return slot >= 0 && this.setSlot(slot);
+    }
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    int slot = o == null ? -1 : this.registry.slot(o);
+    return slot >= 0 && this.removeSlot(slot, o);
+  }
+
+  @Override
+  public void clear() {
+    synchronized (this) {
+      // drop the references to all slots in this set, this frees slots which are no longer used by any set
+      long[] words = this.words;
+      this.words = EMPTY_WORDS;
+      for (int slot = nextSetSlot(words, 0); slot >= 0; slot = nextSetSlot(words, slot + 1)) {
+        this.registry.releaseReference(slot, this);
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (long word : this.words) {
+      size += Long.bitCount(word);
+    }
+
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    for (long word : this.words) {
+      if (word != 0) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public @NotNull Iterator<P> iterator() {
+    return new SlotIterator(this.words);
+  }
+
+  boolean removeSlot(int slot, @NotNull Object player) {
+    synchronized (this) {
+      // the slot might have been freed and re-assigned to another player since it was looked up
+      if (this.registry.player(slot) != player || !this.clearSlot(slot)) {
+        return false;
+      }
+
+      this.registry.releaseReference(slot, this);
+      return true;
+    }
+  }
+
+  private boolean setSlot(int slot) {
+    long[] words = this.words;
+    if (isSet(words, slot)) {
+      return false;
+    }
+
+    // copy the words & grow them if needed
+    int wordIndex = slot >> 6;
+    long[] newWords = Arrays.copyOf(words, Math.max(words.length, wordIndex + 1));
+    newWords[wordIndex] |= 1L << slot;
+    this.words = newWords;
+    return true;
+  }
+
+  private boolean clearSlot(int slot) {
+    long[] words = this.words;
+    if (!isSet(words, slot)) {
+      return false;
+    }
+
+    long[] newWords = words.clone();
+    newWords[slot >> 6] &= ~(1L << slot);
+    this.words = newWords;
+    return true;
+  }
+
+  private final class SlotIterator implements Iterator<P> {
+
+    // iterates over a snapshot of the set, changes made after the iterator was created are not visible
+    private final long[] words;
+
+    private int nextSlot;
+    private P next;
+    private P last;
+
+    public SlotIterator(long[] words) {
+      this.words = words;
+      this.advance();
+    }
+
+    private void advance() {
+      this.next = null;
+      int maxSlot = this.words.length << 6;
+      while (this.nextSlot < maxSlot) {
+        int slot = this.nextSlot++;
+        if (isSet(this.words, slot)) {
+          // the player might have been released since the snapshot was taken, and the slot might
+          // be re-used by another player now. only return the player if it still owns the slot and is
+          // still in this set
+          PlayerSlotRegistry<P> registry = PlayerSlotSet.this.registry;
+          P player = registry.player(slot);
+          if (player != null && registry.slot(player) == slot && isSet(PlayerSlotSet.this.words, slot)) {
+            this.next = player;
+            return;
+          }
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.next != null;
+    }
+
+    @Override
+    public P next() {
+      P next = this.next;
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+
+      this.last = next;
+      this.advance();
+      return next;
+    }
+
+    @Override
+    public void remove() {
+      if (this.last == null) {
+        throw new IllegalStateException();
+      }
+
+      PlayerSlotSet.this.remove(this.last);
+      this.last = null;
+    }
+  }
+}
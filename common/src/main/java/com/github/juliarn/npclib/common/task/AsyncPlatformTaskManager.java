@@ -27,49 +27,111 @@
 import com.github.juliarn.npclib.api.PlatformTaskManager;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import org.jetbrains.annotations.NotNull;
 
 public final class AsyncPlatformTaskManager implements PlatformTaskManager {
 
-  private static final long ONE_TICK_MS = 1000 / 20;
+  private static final long ONE_TICK_NANOS = TimeUnit.SECONDS.toNanos(1) / 20;
+  private static final int DEFAULT_WORKER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
 
-  private final ExecutorService runOnceExecutorService;
-  private final ScheduledExecutorService scheduledExecutorService;
+  private final ExecutorService workerExecutor;
+  private final HashedWheelTimer timer;
 
-  private AsyncPlatformTaskManager(@NotNull String extensionId) {
-    ThreadFactory runOnceThreadFactory = AsyncTaskThreadFactory.create(extensionId + " NPC-Lib Task #%d");
-    this.runOnceExecutorService = Executors.newCachedThreadPool(runOnceThreadFactory);
+  // metrics about the time tasks had to wait after they were due
+  private final LongAdder executedTasks = new LongAdder();
+  private final LongAdder totalTaskLatency = new LongAdder();
+  private final AtomicLong maxTaskLatency = new AtomicLong();
 
-    ThreadFactory scheduledThreadFactory = AsyncTaskThreadFactory.create(extensionId + " NPC-Lib Scheduled Task #%d");
-    this.scheduledExecutorService = Executors.newScheduledThreadPool(0, scheduledThreadFactory);
+  private AsyncPlatformTaskManager(@NotNull String extensionId, int workerThreads) {
+    this.workerExecutor = WorkerExecutorFactory.createWorkerExecutor(extensionId, workerThreads);
+
+    ThreadFactory timerThreadFactory = AsyncTaskThreadFactory.create(extensionId + " NPC-Lib Timer #%d");
+    this.timer = new HashedWheelTimer(timerThreadFactory, this.workerExecutor, ONE_TICK_NANOS);
   }
 
   public static @NotNull PlatformTaskManager taskManager(@NotNull String extensionIdentifier) {
+    return taskManager(extensionIdentifier, DEFAULT_WORKER_THREADS);
+  }
+
+  public static @NotNull PlatformTaskManager taskManager(@NotNull String extensionIdentifier, int workerThreads) {
     Objects.requireNonNull(extensionIdentifier, "extensionIdentifier");
-    return new AsyncPlatformTaskManager(extensionIdentifier);
+    if (workerThreads < 1) {
+      throw new IllegalArgumentException("At least one worker thread is required, got " + workerThreads);
+    }
+
+    return new AsyncPlatformTaskManager(extensionIdentifier, workerThreads);
   }
 
   @Override
   public void scheduleSync(@NotNull Runnable task) {
-    this.runOnceExecutorService.execute(task);
+    this.workerExecutor.execute(this.measuredTask(task, System.nanoTime()));
   }
 
   @Override
   public void scheduleDelayedSync(@NotNull Runnable task, int delayTicks) {
-    this.scheduledExecutorService.schedule(task, delayTicks * ONE_TICK_MS, TimeUnit.MILLISECONDS);
+    this.scheduleDelayed(task, delayTicks);
   }
 
   @Override
   public void scheduleAsync(@NotNull Runnable task) {
-    this.runOnceExecutorService.execute(task);
+    this.workerExecutor.execute(this.measuredTask(task, System.nanoTime()));
   }
 
   @Override
   public void scheduleDelayedAsync(@NotNull Runnable task, int delayTicks) {
-    this.scheduledExecutorService.schedule(task, delayTicks * ONE_TICK_MS, TimeUnit.MILLISECONDS);
+    this.scheduleDelayed(task, delayTicks);
+  }
+
+  public int queuedTasks() {
+    // there is no queue when the tasks are executed using virtual threads
+    if (this.workerExecutor instanceof ThreadPoolExecutor) {
+      return ((ThreadPoolExecutor) this.workerExecutor).getQueue().size();
+    }
+    return 0;
+  }
+
+  public int pendingDelayedTasks() {
+    return this.timer.pendingTimeouts();
+  }
+
+  public long executedTasks() {
+    return this.executedTasks.sum();
+  }
+
+  public long averageTaskLatency(@NotNull TimeUnit unit) {
+    long executed = this.executedTasks.sum();
+    return executed == 0 ? 0 : unit.convert(this.totalTaskLatency.sum() / executed, TimeUnit.NANOSECONDS);
+  }
+
+  public long maxTaskLatency(@NotNull TimeUnit unit) {
+    return unit.convert(this.maxTaskLatency.get(), TimeUnit.NANOSECONDS);
+  }
+
+  public void shutdown() {
+    // stop the timer first to prevent it from submitting tasks to the stopped worker executor
+    this.timer.stop();
+    this.workerExecutor.shutdown();
+  }
+
+  private void scheduleDelayed(@NotNull Runnable task, int delayTicks) {
+    long deadline = System.nanoTime() + Math.max(0, delayTicks) * ONE_TICK_NANOS;
+    this.timer.schedule(this.measuredTask(task, deadline), deadline);
+  }
+
+  private @NotNull Runnable measuredTask(@NotNull Runnable task, long dueTime) {
+    return () -> {
+      // record the time between the point the task was due and the actual execution start
+      long latency = Math.max(0, System.nanoTime() - dueTime);
+      this.executedTasks.increment();
+      this.totalTaskLatency.add(latency);
+      this.maxTaskLatency.accumulateAndGet(latency, Math::max);
+
+      task.run();
+    };
   }
 }
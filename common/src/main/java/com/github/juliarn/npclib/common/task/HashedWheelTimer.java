@@ -0,0 +1,194 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common.task;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.jetbrains.annotations.NotNull;
+
+final class HashedWheelTimer {
+
+  private static final int WHEEL_SIZE = 512;
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+  private final long tickNanos;
+  private final Executor executor;
+  private final Thread timerThread;
+
+  // the wheel buckets are only accessed by the timer thread, new timeouts are handed over using the queue
+  private final Deque<Timeout>[] wheel;
+  private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingTimeouts = new AtomicInteger();
+
+  private final long startTime;
+  private final AtomicBoolean started = new AtomicBoolean();
+  private volatile boolean running = true;
+  private volatile boolean idle;
+
+  private long currentTick;
+
+  @SuppressWarnings("unchecked")
+  public HashedWheelTimer(@NotNull ThreadFactory threadFactory, @NotNull Executor executor, long tickNanos) {
+    this.tickNanos = tickNanos;
+    this.executor = executor;
+
+    this.wheel = new Deque[WHEEL_SIZE];
+    for (int i = 0; i < WHEEL_SIZE; i++) {
+      this.wheel[i] = new ArrayDeque<>();
+    }
+
+    // the timer thread is started once the first timeout is scheduled, all tick deadlines
+    // are calculated relative to the start time
+    this.startTime = System.nanoTime();
+    this.timerThread = threadFactory.newThread(this::runTimer);
+  }
+
+  public void schedule(@NotNull Runnable task, long deadline) {
+    if (!this.running) {
+      throw new IllegalStateException("Timer was already stopped");
+    }
+
+    // register the timeout, it will be moved into the wheel by the timer thread on the next tick
+    this.pendingTimeouts.incrementAndGet();
+    this.newTimeouts.add(new Timeout(task, deadline));
+
+    // start the timer thread lazily & wake it up if it's parked because there was nothing to do
+    if (!this.started.get() && this.started.compareAndSet(false, true)) {
+      this.timerThread.start();
+    } else if (this.idle) {
+      LockSupport.unpark(this.timerThread);
+    }
+  }
+
+  public int pendingTimeouts() {
+    return this.pendingTimeouts.get();
+  }
+
+  public void stop() {
+    this.running = false;
+    if (this.started.get()) {
+      this.timerThread.interrupt();
+    }
+
+    // drop all timeouts which were never moved into the wheel
+    this.newTimeouts.clear();
+    this.pendingTimeouts.set(0);
+  }
+
+  private void runTimer() {
+    while (this.running) {
+      // park the thread while there are no timeouts instead of ticking for nothing
+      if (this.pendingTimeouts.get() == 0) {
+        this.awaitTimeouts();
+        if (!this.running) {
+          return;
+        }
+      }
+
+      // wait until the next tick is due
+      long tickDeadline = this.startTime + (this.currentTick + 1) * this.tickNanos;
+      long waitNanos;
+      while ((waitNanos = tickDeadline - System.nanoTime()) > 0) {
+        LockSupport.parkNanos(this, waitNanos);
+        if (!this.running) {
+          return;
+        }
+      }
+
+      // move the new timeouts into the wheel & run the ones which are due in the current bucket
+      this.transferNewTimeouts();
+      this.expireTimeouts(this.wheel[(int) (this.currentTick & WHEEL_MASK)]);
+      this.currentTick++;
+    }
+  }
+
+  private void awaitTimeouts() {
+    // the idle flag must be visible before checking the pending timeouts, schedule either sees
+    // the flag and unparks the thread or the check below sees the new timeout
+    this.idle = true;
+    while (this.running && this.pendingTimeouts.get() == 0) {
+      LockSupport.park(this);
+    }
+    this.idle = false;
+
+    // the wheel is empty, skip the ticks which passed while the thread was parked
+    long elapsedTicks = (System.nanoTime() - this.startTime) / this.tickNanos;
+    this.currentTick = Math.max(this.currentTick, elapsedTicks);
+  }
+
+  private void transferNewTimeouts() {
+    Timeout timeout;
+    while ((timeout = this.newTimeouts.poll()) != null) {
+      // calculate the tick in which the timeout is due, never put it into an already passed bucket
+      long dueTick = Math.max((timeout.deadline - this.startTime) / this.tickNanos, this.currentTick);
+      timeout.remainingRounds = (dueTick - this.currentTick) / WHEEL_SIZE;
+      this.wheel[(int) (dueTick & WHEEL_MASK)].add(timeout);
+    }
+  }
+
+  private void expireTimeouts(@NotNull Deque<Timeout> bucket) {
+    Iterator<Timeout> iterator = bucket.iterator();
+    while (iterator.hasNext()) {
+      Timeout timeout = iterator.next();
+      if (timeout.remainingRounds > 0) {
+        // not yet due, needs another round of the wheel
+        timeout.remainingRounds--;
+        continue;
+      }
+
+      // the timeout is due, hand it over to the executor
+      iterator.remove();
+      this.pendingTimeouts.decrementAndGet();
+      try {
+        this.executor.execute(timeout.task);
+      } catch (RejectedExecutionException ignored) {
+        // the executor was shut down, the task can't be executed anymore. the timer thread
+        // must keep running though to not leave the other timeouts behind
+      }
+    }
+  }
+
+  private static final class Timeout {
+
+    private final Runnable task;
+    private final long deadline;
+
+    private long remainingRounds;
+
+    public Timeout(@NotNull Runnable task, long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common.task;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+final class WorkerExecutorFactory {
+
+  private WorkerExecutorFactory() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static @NotNull ExecutorService createWorkerExecutor(@NotNull String extensionId, int workerThreads) {
+    // replaced with an implementation based on virtual threads when running on java 21+. the work
+    // queue is unbounded on purpose: packets and spawns must never be rejected, the number of waiting
+    // tasks can be monitored using AsyncPlatformTaskManager.queuedTasks
+    ThreadFactory workerThreadFactory = AsyncTaskThreadFactory.create(extensionId + " NPC-Lib Task #%d");
+    ThreadPoolExecutor workerExecutor = new ThreadPoolExecutor(
+      workerThreads,
+      workerThreads,
+      60L,
+      TimeUnit.SECONDS,
+      new LinkedBlockingQueue<>(),
+      workerThreadFactory);
+    workerExecutor.allowCoreThreadTimeOut(true);
+    return workerExecutor;
+  }
+}
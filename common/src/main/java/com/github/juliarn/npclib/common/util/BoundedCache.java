@@ -0,0 +1,79 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public final class BoundedCache<K, V> {
+
+  private final Map<K, V> entries;
+
+  private BoundedCache(int maximumSize) {
+    // access ordered map, the least recently used entry is removed when the maximum size is exceeded
+    this.entries = new LinkedHashMap<K, V>(16, 0.75F, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return this.size() > maximumSize;
+      }
+    };
+  }
+
+  public static @NotNull <K, V> BoundedCache<K, V> boundedCache(int maximumSize) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("Maximum cache size must be positive");
+    }
+
+    return new BoundedCache<>(maximumSize);
+  }
+
+  public @Nullable V get(@NotNull K key, @NotNull Function<K, V> loader) {
+    synchronized (this.entries) {
+      V value = this.entries.get(key);
+      if (value != null) {
+        return value;
+      }
+    }
+
+    // load the value outside the lock, null values are not cached
+    V value = loader.apply(key);
+    if (value != null) {
+      synchronized (this.entries) {
+        this.entries.put(key, value);
+      }
+    }
+
+    return value;
+  }
+
+  public void clear() {
+    synchronized (this.entries) {
+      this.entries.clear();
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common.util;
+
+import com.github.juliarn.npclib.api.PlatformVersionAccessor;
+import com.github.juliarn.npclib.api.protocol.meta.EntityMetadata;
+import com.github.juliarn.npclib.api.protocol.meta.EntityMetadataFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+public final class EntityMetadataHelper {
+
+  private EntityMetadataHelper() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static @NotNull <T> List<EntityMetadata<?>> createAvailableMetadata(
+    @NotNull EntityMetadataFactory<T, ?> metadataFactory,
+    @NotNull T value,
+    @NotNull PlatformVersionAccessor versionAccessor
+  ) {
+    // check if the meta is available, the related metas are not sent if the main meta is not available
+    EntityMetadata<?> entityMetadata = metadataFactory.create(value, versionAccessor);
+    if (!entityMetadata.available()) {
+      return new ArrayList<>(0);
+    }
+
+    Collection<EntityMetadataFactory<T, Object>> relatedMetadata = metadataFactory.relatedMetadata(versionAccessor);
+    List<EntityMetadata<?>> metadata = new ArrayList<>(relatedMetadata.size() + 1);
+    metadata.add(entityMetadata);
+
+    // add all dependant metas
+    for (EntityMetadataFactory<T, Object> relatedMetadataFactory : relatedMetadata) {
+      EntityMetadata<Object> related = relatedMetadataFactory.create(value, versionAccessor);
+      if (related.available()) {
+        metadata.add(related);
+      }
+    }
+
+    return metadata;
+  }
+}
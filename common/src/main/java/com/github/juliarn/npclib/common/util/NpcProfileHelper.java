@@ -0,0 +1,51 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.juliarn.npclib.common.util;
+
+import com.github.juliarn.npclib.api.Npc;
+import com.github.juliarn.npclib.api.profile.Profile;
+import com.github.juliarn.npclib.common.npc.CommonNpc;
+import java.util.concurrent.CompletableFuture;
+import org.jetbrains.annotations.NotNull;
+
+public final class NpcProfileHelper {
+
+  private NpcProfileHelper() {
+    throw new UnsupportedOperationException();
+  }
+
+  @SuppressWarnings("unchecked")
+  public static @NotNull <P> CompletableFuture<Profile.Resolved> resolveProfile(
+    @NotNull Npc<?, P, ?, ?> npc,
+    @NotNull P player
+  ) {
+    // while the npc is spawning for the player the profile which is used for the spawn is reused,
+    // this ensures that the spawn is chained onto the same resolve as the player info packet
+    if (npc instanceof CommonNpc<?, ?, ?, ?>) {
+      return ((CommonNpc<?, P, ?, ?>) npc).resolveProfile(player);
+    }
+
+    return npc.settings().profileResolver().resolveNpcProfile(player, npc);
+  }
+}
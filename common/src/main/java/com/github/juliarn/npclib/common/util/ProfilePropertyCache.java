@@ -0,0 +1,78 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.github.juliarn.npclib.common.util;
+
+import com.github.juliarn.npclib.api.profile.ProfileProperty;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+
+public final class ProfilePropertyCache<T> {
+
+  // the property sets of resolved profiles are interned, profiles sharing a texture share the same set
+  // instance which keeps the entry alive until no resolved profile uses the texture anymore
+  private final Map<Set<ProfileProperty>, List<T>> entries = new WeakHashMap<>();
+  private final Function<ProfileProperty, T> converter;
+
+  private ProfilePropertyCache(@NotNull Function<ProfileProperty, T> converter) {
+    this.converter = converter;
+  }
+
+  public static @NotNull <T> ProfilePropertyCache<T> propertyCache(@NotNull Function<ProfileProperty, T> converter) {
+    Objects.requireNonNull(converter, "converter");
+    return new ProfilePropertyCache<>(converter);
+  }
+
+  public @NotNull List<T> convert(@NotNull Set<ProfileProperty> properties) {
+    if (properties.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    synchronized (this.entries) {
+      List<T> converted = this.entries.get(properties);
+      if (converted != null) {
+        return converted;
+      }
+    }
+
+    // convert the properties outside the lock, converting twice on a race is harmless
+    List<T> converted = new ArrayList<>(properties.size());
+    for (ProfileProperty property : properties) {
+      converted.add(this.converter.apply(property));
+    }
+
+    List<T> result = Collections.unmodifiableList(converted);
+    synchronized (this.entries) {
+      this.entries.put(properties, result);
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common.util;
+
+import com.github.juliarn.npclib.api.Position;
+import org.jetbrains.annotations.NotNull;
+
+public final class RotationHelper {
+
+  private RotationHelper() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static float lookAtYaw(@NotNull Position from, @NotNull Position to) {
+    double diffX = to.x() - from.x();
+    double diffZ = to.z() - from.z();
+
+    double distanceXZ = Math.sqrt(diffX * diffX + diffZ * diffZ);
+    double yaw = Math.toDegrees(Math.acos(diffX / distanceXZ));
+
+    // correct yaw according to difference
+    if (diffZ < 0) {
+      yaw += Math.abs(180 - yaw) * 2;
+    }
+
+    return (float) (yaw - 90);
+  }
+
+  public static float lookAtPitch(@NotNull Position from, @NotNull Position to) {
+    double diffX = to.x() - from.x();
+    double diffY = to.y() - from.y();
+    double diffZ = to.z() - from.z();
+
+    double distanceXZ = Math.sqrt(diffX * diffX + diffZ * diffZ);
+    double distanceY = Math.sqrt(distanceXZ * distanceXZ + diffY * diffY);
+
+    return (float) (Math.toDegrees(Math.acos(diffY / distanceY)) - 90);
+  }
+
+  public static byte angleToByte(float angle) {
+    // the protocol uses 256 steps for a full rotation
+    return (byte) (angle * 256F / 360F);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.juliarn.npclib.api.Position;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+final class NpcViewStateTest {
+
+  // long enough to never elapse while a test is running
+  private static final long INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+  private static final Position FIRST_TARGET = Position.position(1, 2, 3, "world");
+  private static final Position SECOND_TARGET = Position.position(4, 5, 6, "world");
+
+  @Test
+  void firstRotationIsSentRightAway() {
+    NpcViewState state = new NpcViewState();
+    assertEquals(NpcViewState.SEND_NOW, state.offerRotation(INTERVAL, FIRST_TARGET, (byte) 1, (byte) 2, true));
+  }
+
+  @Test
+  void unchangedRotationIsDropped() {
+    NpcViewState state = new NpcViewState();
+    state.offerRotation(0, FIRST_TARGET, (byte) 1, (byte) 2, true);
+
+    assertEquals(NpcViewState.NO_ACTION, state.offerRotation(0, SECOND_TARGET, (byte) 1, (byte) 2, true));
+    assertNull(state.takePendingTarget());
+  }
+
+  @Test
+  void rotationWithinTheIntervalIsDelayed() {
+    NpcViewState state = new NpcViewState();
+    state.offerRotation(INTERVAL, FIRST_TARGET, (byte) 1, (byte) 2, true);
+
+    // the first throttled rotation requests a flush, the following ones only replace the pending target
+    long waitNanos = state.offerRotation(INTERVAL, FIRST_TARGET, (byte) 3, (byte) 4, true);
+    assertTrue(waitNanos > 0 && waitNanos <= INTERVAL);
+    assertEquals(NpcViewState.NO_ACTION, state.offerRotation(INTERVAL, SECOND_TARGET, (byte) 5, (byte) 6, true));
+
+    assertSame(SECOND_TARGET, state.takePendingTarget());
+    assertNull(state.takePendingTarget());
+  }
+
+  @Test
+  void rotationIsDelayedWhileThePlayerCanNotReceiveIt() {
+    NpcViewState state = new NpcViewState();
+
+    assertEquals(1, state.offerRotation(INTERVAL, FIRST_TARGET, (byte) 1, (byte) 2, false));
+    assertSame(FIRST_TARGET, state.takePendingTarget());
+
+    // a new flush can be requested once the pending target was taken
+    assertEquals(NpcViewState.SEND_NOW, state.offerRotation(INTERVAL, SECOND_TARGET, (byte) 1, (byte) 2, true));
+  }
+
+  @Test
+  void rotationIsSentOnceTheIntervalElapsed() {
+    NpcViewState state = new NpcViewState();
+    state.offerRotation(0, FIRST_TARGET, (byte) 1, (byte) 2, true);
+
+    assertEquals(NpcViewState.SEND_NOW, state.offerRotation(0, SECOND_TARGET, (byte) 3, (byte) 4, true));
+  }
+}
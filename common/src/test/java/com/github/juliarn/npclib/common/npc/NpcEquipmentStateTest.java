@@ -0,0 +1,155 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common.npc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.juliarn.npclib.api.protocol.enums.ItemSlot;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+final class NpcEquipmentStateTest {
+
+  private static Map<ItemSlot, String> equipment(ItemSlot slot, String item) {
+    Map<ItemSlot, String> equipment = new EnumMap<>(ItemSlot.class);
+    equipment.put(slot, item);
+    return equipment;
+  }
+
+  @Test
+  void changesWithinOneTickAreCoalesced() {
+    TestNpcEnvironment environment = new TestNpcEnvironment();
+    environment.trackedPlayers.add("player");
+    NpcEquipmentState<Object, String, String, Object> state = new NpcEquipmentState<>(environment.npc);
+
+    state.update(Collections.singleton("player"), ItemSlot.MAIN_HAND, "stone", true);
+    state.update(Collections.singleton("player"), ItemSlot.MAIN_HAND, "dirt", true);
+    state.update(Collections.singleton("player"), ItemSlot.HEAD, "helmet", true);
+
+    // only the first change schedules a flush
+    assertEquals(1, environment.delayedTasks.size());
+    environment.runDelayedTasks();
+
+    // all changes are sent in one packet, only the latest item per slot is kept
+    Map<ItemSlot, String> expected = equipment(ItemSlot.MAIN_HAND, "dirt");
+    expected.put(ItemSlot.HEAD, "helmet");
+    assertEquals(1, environment.sentPackets.size());
+    assertEquals(expected, environment.sentPackets.get(0).payload);
+  }
+
+  @Test
+  void playersReceivingTheSameChangesShareOnePacket() {
+    TestNpcEnvironment environment = new TestNpcEnvironment();
+    environment.trackedPlayers.addAll(Arrays.asList("first", "second"));
+    NpcEquipmentState<Object, String, String, Object> state = new NpcEquipmentState<>(environment.npc);
+
+    state.update(environment.trackedPlayers, ItemSlot.CHEST, "chestplate", true);
+    environment.runDelayedTasks();
+
+    assertEquals(1, environment.createdEquipmentPackets);
+    assertEquals(2, environment.sentPackets.size());
+  }
+
+  @Test
+  void identicalItemsAreNotSentAgain() {
+    TestNpcEnvironment environment = new TestNpcEnvironment();
+    environment.trackedPlayers.add("player");
+    NpcEquipmentState<Object, String, String, Object> state = new NpcEquipmentState<>(environment.npc);
+
+    state.update(Collections.singleton("player"), ItemSlot.MAIN_HAND, "stone", true);
+    environment.runDelayedTasks();
+    state.update(Collections.singleton("player"), ItemSlot.MAIN_HAND, "stone", true);
+
+    // the player already sees the item, no flush is needed
+    assertTrue(environment.delayedTasks.isEmpty());
+    assertEquals(1, environment.sentPackets.size());
+  }
+
+  @Test
+  void changesAreNotSentToUntrackedPlayers() {
+    TestNpcEnvironment environment = new TestNpcEnvironment();
+    NpcEquipmentState<Object, String, String, Object> state = new NpcEquipmentState<>(environment.npc);
+
+    state.update(Collections.singleton("player"), ItemSlot.MAIN_HAND, "stone", true);
+    environment.runDelayedTasks();
+
+    assertTrue(environment.sentPackets.isEmpty());
+  }
+
+  @Test
+  void replayOnlyContainsPersistentEquipment() {
+    TestNpcEnvironment environment = new TestNpcEnvironment();
+    environment.trackedPlayers.add("player");
+    NpcEquipmentState<Object, String, String, Object> state = new NpcEquipmentState<>(environment.npc);
+
+    state.update(Collections.singleton("player"), ItemSlot.MAIN_HAND, "stone", true);
+    state.update(Collections.singleton("player"), ItemSlot.HEAD, "helmet", false);
+    environment.runDelayedTasks();
+    environment.sentPackets.clear();
+
+    state.replay("other");
+
+    // the item sent to a specific player is not replayed
+    assertEquals(1, environment.sentPackets.size());
+    TestNpcEnvironment.SentPacket packet = environment.sentPackets.get(0);
+    assertEquals("other", packet.player);
+    assertEquals(equipment(ItemSlot.MAIN_HAND, "stone"), packet.payload);
+  }
+
+  @Test
+  void replayPacketIsReusedUntilTheEquipmentChanges() {
+    TestNpcEnvironment environment = new TestNpcEnvironment();
+    NpcEquipmentState<Object, String, String, Object> state = new NpcEquipmentState<>(environment.npc);
+
+    state.update(Collections.emptySet(), ItemSlot.MAIN_HAND, "stone", true);
+    state.replay("first");
+    state.replay("second");
+    assertEquals(1, environment.createdEquipmentPackets);
+
+    state.update(Collections.emptySet(), ItemSlot.MAIN_HAND, "dirt", true);
+    state.replay("third");
+    assertEquals(2, environment.createdEquipmentPackets);
+    assertEquals(equipment(ItemSlot.MAIN_HAND, "dirt"), environment.sentPackets.get(2).payload);
+  }
+
+  @Test
+  void replayedEquipmentIsNotSentAgain() {
+    TestNpcEnvironment environment = new TestNpcEnvironment();
+    NpcEquipmentState<Object, String, String, Object> state = new NpcEquipmentState<>(environment.npc);
+
+    state.update(Collections.emptySet(), ItemSlot.MAIN_HAND, "stone", true);
+    environment.trackedPlayers.add("player");
+    state.replay("player");
+    state.update(Collections.singleton("player"), ItemSlot.MAIN_HAND, "stone", true);
+
+    // the player received the item with the replay
+    assertTrue(environment.delayedTasks.isEmpty());
+    assertEquals(1, environment.sentPackets.size());
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common.npc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.juliarn.npclib.api.protocol.meta.EntityMetadata;
+import com.github.juliarn.npclib.api.protocol.meta.EntityMetadataFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+final class NpcMetadataStateTest {
+
+  private static final EntityMetadataFactory<Integer, Integer> FIRST_META = metaFactory(1);
+  private static final EntityMetadataFactory<Integer, Integer> SECOND_META = metaFactory(2);
+
+  private static EntityMetadataFactory<Integer, Integer> metaFactory(int index) {
+    return EntityMetadataFactory.<Integer, Integer>metaFactoryBuilder()
+      .baseIndex(index)
+      .indexShiftVersions()
+      .type(Integer.class)
+      .inputConverter(Function.identity())
+      .build();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Collection<EntityMetadata<?>> metadata(TestNpcEnvironment.SentPacket packet) {
+    return (Collection<EntityMetadata<?>>) packet.payload;
+  }
+
+  @Test
+  void changesWithinOneTickAreCoalesced() {
+    TestNpcEnvironment environment = new TestNpcEnvironment();
+    environment.trackedPlayers.add("player");
+    NpcMetadataState<Object, String, String, Object> state = new NpcMetadataState<>(environment.npc);
+
+    state.update(Collections.singleton("player"), FIRST_META, 1, true);
+    state.update(Collections.singleton("player"), FIRST_META, 2, true);
+    state.update(Collections.singleton("player"), SECOND_META, 3, true);
+
+    // only the first change schedules a flush
+    assertEquals(1, environment.delayedTasks.size());
+    environment.runDelayedTasks();
+
+    // all changes are sent in one packet, only the latest value per index is kept
+    assertEquals(1, environment.sentPackets.size());
+    Collection<EntityMetadata<?>> metadata = metadata(environment.sentPackets.get(0));
+    assertEquals(2, metadata.size());
+    for (EntityMetadata<?> entry : metadata) {
+      assertEquals(entry.index() == 1 ? 2 : 3, entry.value());
+    }
+  }
+
+  @Test
+  void newChangesScheduleAnotherFlush() {
+    TestNpcEnvironment environment = new TestNpcEnvironment();
+    environment.trackedPlayers.add("player");
+    NpcMetadataState<Object, String, String, Object> state = new NpcMetadataState<>(environment.npc);
+
+    state.update(Collections.singleton("player"), FIRST_META, 1, true);
+    environment.runDelayedTasks();
+    state.update(Collections.singleton("player"), FIRST_META, 2, true);
+    environment.runDelayedTasks();
+
+    assertEquals(2, environment.sentPackets.size());
+  }
+
+  @Test
+  void changesAreNotSentToUntrackedPlayers() {
+    TestNpcEnvironment environment = new TestNpcEnvironment();
+    NpcMetadataState<Object, String, String, Object> state = new NpcMetadataState<>(environment.npc);
+
+    state.update(Collections.singleton("player"), FIRST_META, 1, true);
+    environment.runDelayedTasks();
+
+    assertTrue(environment.sentPackets.isEmpty());
+  }
+
+  @Test
+  void pendingChangesAreDroppedForRemovedPlayers() {
+    TestNpcEnvironment environment = new TestNpcEnvironment();
+    environment.trackedPlayers.add("player");
+    NpcMetadataState<Object, String, String, Object> state = new NpcMetadataState<>(environment.npc);
+
+    state.update(Collections.singleton("player"), FIRST_META, 1, true);
+    state.removePlayer("player");
+    environment.runDelayedTasks();
+
+    assertTrue(environment.sentPackets.isEmpty());
+  }
+
+  @Test
+  void replayOnlyContainsPersistentMetadata() {
+    TestNpcEnvironment environment = new TestNpcEnvironment();
+    NpcMetadataState<Object, String, String, Object> state = new NpcMetadataState<>(environment.npc);
+
+    state.update(Collections.singleton("player"), FIRST_META, 1, true);
+    state.update(Collections.singleton("player"), FIRST_META, 2, true);
+    state.update(Collections.singleton("player"), SECOND_META, 3, false);
+    state.replay("other");
+
+    // the replay is sent directly in one packet, the change for a specific player is not replayed
+    assertEquals(1, environment.sentPackets.size());
+    TestNpcEnvironment.SentPacket packet = environment.sentPackets.get(0);
+    assertEquals("other", packet.player);
+
+    Collection<EntityMetadata<?>> metadata = metadata(packet);
+    assertEquals(1, metadata.size());
+    EntityMetadata<?> entry = metadata.iterator().next();
+    assertEquals(1, entry.index());
+    assertEquals(2, entry.value());
+  }
+
+  @Test
+  void replayWithoutMetadataSendsNothing() {
+    TestNpcEnvironment environment = new TestNpcEnvironment();
+    NpcMetadataState<Object, String, String, Object> state = new NpcMetadataState<>(environment.npc);
+
+    state.replay("player");
+
+    assertTrue(environment.sentPackets.isEmpty());
+  }
+}
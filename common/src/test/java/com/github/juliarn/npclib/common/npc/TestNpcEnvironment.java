@@ -0,0 +1,184 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common.npc;
+
+import com.github.juliarn.npclib.api.Npc;
+import com.github.juliarn.npclib.api.Platform;
+import com.github.juliarn.npclib.api.PlatformTaskManager;
+import com.github.juliarn.npclib.api.PlatformVersionAccessor;
+import com.github.juliarn.npclib.api.protocol.OutboundPacket;
+import com.github.juliarn.npclib.api.protocol.PlatformPacketAdapter;
+import com.github.juliarn.npclib.api.protocol.enums.ItemSlot;
+import com.github.juliarn.npclib.api.protocol.meta.EntityMetadata;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// a minimal platform & npc which record the scheduled tasks and sent packets instead of executing them
+final class TestNpcEnvironment {
+
+  final List<Runnable> delayedTasks = new ArrayList<>();
+  final List<SentPacket> sentPackets = new ArrayList<>();
+  final Set<String> trackedPlayers = new HashSet<>();
+
+  final Npc<Object, String, String, Object> npc;
+
+  int createdEquipmentPackets;
+
+  @SuppressWarnings("unchecked")
+  TestNpcEnvironment() {
+    PlatformTaskManager taskManager = new RecordingTaskManager();
+    PlatformVersionAccessor versionAccessor = new LatestVersionAccessor();
+    PlatformPacketAdapter<Object, String, String, Object> packetFactory = proxy(
+      PlatformPacketAdapter.class,
+      (name, args) -> {
+        switch (name) {
+          case "createEntityMetaPacket":
+            return this.recordingPacket(new ArrayList<>((Collection<EntityMetadata<?>>) args[0]));
+          case "createEquipmentPacket":
+            this.createdEquipmentPackets++;
+            return this.recordingPacket(new EnumMap<>((Map<ItemSlot, String>) args[0]));
+          default:
+            throw new UnsupportedOperationException(name);
+        }
+      });
+    Platform<Object, String, String, Object> platform = proxy(Platform.class, (name, args) -> {
+      switch (name) {
+        case "taskManager":
+          return taskManager;
+        case "versionAccessor":
+          return versionAccessor;
+        case "packetFactory":
+          return packetFactory;
+        default:
+          throw new UnsupportedOperationException(name);
+      }
+    });
+    this.npc = proxy(Npc.class, (name, args) -> {
+      switch (name) {
+        case "platform":
+          return platform;
+        case "tracksPlayer":
+          return this.trackedPlayers.contains((String) args[0]);
+        default:
+          throw new UnsupportedOperationException(name);
+      }
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<?> type, MethodHandler handler) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+      switch (method.getName()) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return type.getSimpleName();
+        default:
+          return handler.handle(method.getName(), args);
+      }
+    });
+  }
+
+  void runDelayedTasks() {
+    List<Runnable> tasks = new ArrayList<>(this.delayedTasks);
+    this.delayedTasks.clear();
+    tasks.forEach(Runnable::run);
+  }
+
+  private OutboundPacket<Object, String, String, Object> recordingPacket(Object payload) {
+    return (player, npc) -> this.sentPackets.add(new SentPacket(player, payload));
+  }
+
+  @FunctionalInterface
+  private interface MethodHandler {
+
+    Object handle(String name, Object[] args);
+  }
+
+  static final class SentPacket {
+
+    final String player;
+    final Object payload;
+
+    SentPacket(String player, Object payload) {
+      this.player = player;
+      this.payload = payload;
+    }
+  }
+
+  private final class RecordingTaskManager implements PlatformTaskManager {
+
+    @Override
+    public void scheduleSync(Runnable task) {
+      task.run();
+    }
+
+    @Override
+    public void scheduleDelayedSync(Runnable task, int delayTicks) {
+      TestNpcEnvironment.this.delayedTasks.add(task);
+    }
+
+    @Override
+    public void scheduleAsync(Runnable task) {
+      task.run();
+    }
+
+    @Override
+    public void scheduleDelayedAsync(Runnable task, int delayTicks) {
+      TestNpcEnvironment.this.delayedTasks.add(task);
+    }
+  }
+
+  private static final class LatestVersionAccessor implements PlatformVersionAccessor {
+
+    @Override
+    public int major() {
+      return 1;
+    }
+
+    @Override
+    public int minor() {
+      return 20;
+    }
+
+    @Override
+    public int patch() {
+      return 4;
+    }
+
+    @Override
+    public boolean atLeast(int major, int minor, int patch) {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common.player;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+final class PlayerSlotSetTest {
+
+  @Test
+  void playerKeepsItsSlotInAllSets() {
+    PlayerSlotRegistry<String> registry = new PlayerSlotRegistry<>();
+    PlayerSlotSet<String> first = registry.newPlayerSet();
+    PlayerSlotSet<String> second = registry.newPlayerSet();
+
+    assertTrue(first.add("player"));
+    int slot = registry.slot("player");
+    assertTrue(second.add("player"));
+    assertFalse(second.add("player"));
+
+    assertEquals(slot, registry.slot("player"));
+    assertSame("player", registry.player(slot));
+    assertTrue(first.contains("player"));
+    assertTrue(second.contains("player"));
+  }
+
+  @Test
+  void slotIsFreedWhenTheLastSetRemovesThePlayer() {
+    PlayerSlotRegistry<String> registry = new PlayerSlotRegistry<>();
+    PlayerSlotSet<String> first = registry.newPlayerSet();
+    PlayerSlotSet<String> second = registry.newPlayerSet();
+    first.add("player");
+    second.add("player");
+    int slot = registry.slot("player");
+
+    // the second set still references the slot
+    assertTrue(first.remove("player"));
+    assertEquals(slot, registry.slot("player"));
+
+    assertTrue(second.remove("player"));
+    assertEquals(-1, registry.slot("player"));
+    assertNull(registry.player(slot));
+  }
+
+  @Test
+  void clearReleasesTheReferencesOfTheSet() {
+    PlayerSlotRegistry<String> registry = new PlayerSlotRegistry<>();
+    PlayerSlotSet<String> set = registry.newPlayerSet();
+    set.add("first");
+    set.add("second");
+
+    set.clear();
+
+    assertTrue(set.isEmpty());
+    assertEquals(-1, registry.slot("first"));
+    assertEquals(-1, registry.slot("second"));
+  }
+
+  @Test
+  void freedSlotsAreReused() {
+    PlayerSlotRegistry<String> registry = new PlayerSlotRegistry<>();
+    PlayerSlotSet<String> set = registry.newPlayerSet();
+    set.add("first");
+    set.add("second");
+    int slot = registry.slot("first");
+
+    set.remove("first");
+    set.add("third");
+
+    // the lowest free slot is used to keep the slots dense
+    assertEquals(slot, registry.slot("third"));
+    assertFalse(set.contains("first"));
+    assertEquals(2, set.size());
+  }
+
+  @Test
+  void releasedPlayersAreRemovedFromAllSets() {
+    PlayerSlotRegistry<String> registry = new PlayerSlotRegistry<>();
+    PlayerSlotSet<String> first = registry.newPlayerSet();
+    PlayerSlotSet<String> second = registry.newPlayerSet();
+    first.add("player");
+    second.add("player");
+    int slot = registry.slot("player");
+
+    registry.releaseSlot("player");
+
+    assertFalse(first.contains("player"));
+    assertFalse(second.contains("player"));
+    assertEquals(-1, registry.slot("player"));
+    assertNull(registry.player(slot));
+  }
+
+  @Test
+  void releasedPlayersCanNotBeAddedAgain() {
+    PlayerSlotRegistry<String> registry = new PlayerSlotRegistry<>();
+    PlayerSlotSet<String> set = registry.newPlayerSet();
+    set.add("player");
+
+    registry.releaseSlot("player");
+
+    assertFalse(set.add("player"));
+    assertFalse(set.contains("player"));
+    assertEquals(-1, registry.slot("player"));
+  }
+
+  @Test
+  void setGrowsBeyondTheInitialCapacity() {
+    PlayerSlotRegistry<String> registry = new PlayerSlotRegistry<>();
+    PlayerSlotSet<String> set = registry.newPlayerSet();
+    Set<String> players = new HashSet<>();
+    for (int i = 0; i < 200; i++) {
+      String player = "player-" + i;
+      players.add(player);
+      assertTrue(set.add(player));
+    }
+
+    assertEquals(200, set.size());
+    assertEquals(players, new HashSet<>(set));
+  }
+
+  @Test
+  void iteratorRemovesFromTheSet() {
+    PlayerSlotRegistry<String> registry = new PlayerSlotRegistry<>();
+    PlayerSlotSet<String> set = registry.newPlayerSet();
+    set.add("first");
+    set.add("second");
+
+    Iterator<String> iterator = set.iterator();
+    String removed = iterator.next();
+    iterator.remove();
+
+    assertFalse(set.contains(removed));
+    assertEquals(1, set.size());
+    assertEquals(-1, registry.slot(removed));
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.common.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+final class HashedWheelTimerTest {
+
+  private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private static final ThreadFactory THREAD_FACTORY = runnable -> {
+    Thread thread = new Thread(runnable, "npc-lib-test-timer");
+    thread.setDaemon(true);
+    return thread;
+  };
+
+  private static void awaitTimeout(HashedWheelTimer timer, long delayNanos) throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicLong executionTime = new AtomicLong();
+    long deadline = System.nanoTime() + delayNanos;
+    timer.schedule(() -> {
+      executionTime.set(System.nanoTime());
+      latch.countDown();
+    }, deadline);
+
+    // the task must never run before its deadline
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertTrue(executionTime.get() >= deadline);
+  }
+
+  @Test
+  void timeoutRunsAfterItsDeadline() throws InterruptedException {
+    HashedWheelTimer timer = new HashedWheelTimer(THREAD_FACTORY, Runnable::run, TICK_NANOS);
+    try {
+      awaitTimeout(timer, TimeUnit.MILLISECONDS.toNanos(20));
+    } finally {
+      timer.stop();
+    }
+  }
+
+  @Test
+  void timeoutRunsAfterMultipleWheelRounds() throws InterruptedException {
+    HashedWheelTimer timer = new HashedWheelTimer(THREAD_FACTORY, Runnable::run, TICK_NANOS);
+    try {
+      // the wheel has 512 buckets, the timeout needs a second round
+      awaitTimeout(timer, TimeUnit.MILLISECONDS.toNanos(700));
+    } finally {
+      timer.stop();
+    }
+  }
+
+  @Test
+  void timeoutsRunAfterTheTimerWasIdle() throws InterruptedException {
+    HashedWheelTimer timer = new HashedWheelTimer(THREAD_FACTORY, Runnable::run, TICK_NANOS);
+    try {
+      awaitTimeout(timer, TICK_NANOS);
+
+      // let the timer thread park, scheduling a new timeout must wake it up again
+      Thread.sleep(50);
+      awaitTimeout(timer, TimeUnit.MILLISECONDS.toNanos(10));
+    } finally {
+      timer.stop();
+    }
+  }
+
+  @Test
+  void pendingTimeoutsAreCounted() throws InterruptedException {
+    HashedWheelTimer timer = new HashedWheelTimer(THREAD_FACTORY, Runnable::run, TICK_NANOS);
+    try {
+      CountDownLatch latch = new CountDownLatch(1);
+      timer.schedule(latch::countDown, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100));
+      timer.schedule(() -> {
+      }, System.nanoTime() + TimeUnit.MINUTES.toNanos(1));
+      assertEquals(2, timer.pendingTimeouts());
+
+      // the count is decremented before the task is handed over to the executor
+      assertTrue(latch.await(5, TimeUnit.SECONDS));
+      assertEquals(1, timer.pendingTimeouts());
+    } finally {
+      timer.stop();
+    }
+  }
+
+  @Test
+  void stoppedTimerRejectsTimeouts() {
+    HashedWheelTimer timer = new HashedWheelTimer(THREAD_FACTORY, Runnable::run, TICK_NANOS);
+    timer.stop();
+
+    assertEquals(0, timer.pendingTimeouts());
+    assertThrows(IllegalStateException.class, () -> timer.schedule(() -> {
+    }, System.nanoTime()));
+  }
+}
@@ -28,6 +28,7 @@
 import com.github.juliarn.npclib.api.NpcActionController;
 import com.github.juliarn.npclib.api.NpcTracker;
 import com.github.juliarn.npclib.api.Position;
+import com.github.juliarn.npclib.api.event.HideNpcEvent;
 import com.github.juliarn.npclib.api.event.ShowNpcEvent;
 import com.github.juliarn.npclib.api.event.manager.NpcEventManager;
 import com.github.juliarn.npclib.api.flag.NpcFlag;
@@ -36,18 +37,27 @@
 import com.github.juliarn.npclib.common.CommonNpcActionController;
 import com.github.juliarn.npclib.common.flag.CommonNpcFlaggedBuilder;
 import com.github.juliarn.npclib.minestom.util.MinestomUtil;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.coordinate.Pos;
 import net.minestom.server.entity.Player;
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.instance.InstanceChunkLoadEvent;
+import net.minestom.server.event.instance.InstanceChunkUnloadEvent;
 import net.minestom.server.event.player.PlayerDisconnectEvent;
 import net.minestom.server.event.player.PlayerHandAnimationEvent;
 import net.minestom.server.event.player.PlayerMoveEvent;
 import net.minestom.server.event.player.PlayerSpawnEvent;
 import net.minestom.server.event.player.PlayerStartSneakingEvent;
 import net.minestom.server.event.player.PlayerStopSneakingEvent;
+import net.minestom.server.event.trait.InstanceEvent;
 import net.minestom.server.instance.Instance;
 import net.minestom.server.item.ItemStack;
 import org.jetbrains.annotations.NotNull;
@@ -57,6 +67,9 @@ public final class MinestomActionController extends CommonNpcActionController {
 
   private final NpcTracker<Instance, Player, ItemStack, Object> npcTracker;
 
+  // the instance each player spawned into last, the npcs of that instance are hidden when the player switches instances
+  private final Map<Player, Instance> playerInstances = new ConcurrentHashMap<>();
+
   // based on the given flags
   private final int spawnDistance;
   private final int imitateDistance;
@@ -76,6 +89,11 @@ public MinestomActionController(
     int imitateDistance = this.flagValueOrDefault(IMITATE_DISTANCE);
     this.imitateDistance = imitateDistance * imitateDistance;
 
+    // reset the view state of npcs which are hidden from a player
+    eventManager.registerEventHandler(
+      HideNpcEvent.Post.class,
+      event -> this.removeViewState(event.player(), event.npc()));
+
     // register listener to update the npc rotation after it is tracked
     if (this.flagValueOrDefault(NpcActionController.AUTO_SYNC_POSITION_ON_SPAWN)) {
       eventManager.registerEventHandler(ShowNpcEvent.Post.class, event -> {
@@ -83,13 +101,11 @@ public MinestomActionController(
         Pos to = player.getPosition();
         Instance instance = player.getInstance();
 
-        // check if the player is within the imitate distance and spawned into an instance
-        // in normal cases the instance check should no evaluate to false at this point
-        double distance = MinestomUtil.distance(event.npc(), to);
-        if (instance != null
-          && distance <= this.imitateDistance
-          && event.npc().flagValueOrDefault(Npc.LOOK_AT_PLAYER)) {
-          event.npc().lookAt(MinestomUtil.positionFromMinestom(to, instance)).schedule(player);
+        // check if the player spawned into an instance, in normal cases this should not evaluate to false at this
+        // point. rotate through the view state, so that following rotation updates are based on this one
+        if (instance != null) {
+          double distance = MinestomUtil.distance(event.npc(), to);
+          this.rotateNpcTowards(player, event.npc(), MinestomUtil.positionFromMinestom(to, instance), distance);
         }
       });
     }
@@ -109,12 +125,25 @@ public MinestomActionController(
   }
 
   private void registerListeners() {
-    MinecraftServer.getGlobalEventHandler().addListener(PlayerMoveEvent.class, this::handleMove);
+    // instance switches and disconnects must be handled globally to hide the npcs of the previous instance
     MinecraftServer.getGlobalEventHandler().addListener(PlayerSpawnEvent.class, this::handlePlayerInstanceSpawn);
-    MinecraftServer.getGlobalEventHandler().addListener(PlayerStartSneakingEvent.class, this::handleStartSneak);
-    MinecraftServer.getGlobalEventHandler().addListener(PlayerStopSneakingEvent.class, this::handleStopSneak);
-    MinecraftServer.getGlobalEventHandler().addListener(PlayerHandAnimationEvent.class, this::handleHandAnimation);
     MinecraftServer.getGlobalEventHandler().addListener(PlayerDisconnectEvent.class, this::handleQuit);
+
+    // only listen to the events of instances which contain npcs, if supported by the tracker
+    if (this.npcTracker instanceof MinestomNpcTracker tracker) {
+      tracker.registerInstanceListeners(this::registerInstanceListeners);
+    } else {
+      this.registerInstanceListeners(MinecraftServer.getGlobalEventHandler());
+    }
+  }
+
+  private void registerInstanceListeners(@NotNull EventNode<? super InstanceEvent> node) {
+    node.addListener(PlayerMoveEvent.class, this::handleMove);
+    node.addListener(PlayerStartSneakingEvent.class, this::handleStartSneak);
+    node.addListener(PlayerStopSneakingEvent.class, this::handleStopSneak);
+    node.addListener(PlayerHandAnimationEvent.class, this::handleHandAnimation);
+    node.addListener(InstanceChunkLoadEvent.class, this::handleChunkLoad);
+    node.addListener(InstanceChunkUnloadEvent.class, this::handleChunkUnload);
   }
 
   private void handleMove(@NotNull PlayerMoveEvent event) {
@@ -127,53 +156,72 @@ private void handleMove(@NotNull PlayerMoveEvent event) {
     // check if any movement happened (event is also called when standing still)
     if (changedPosition || changedOrientation) {
       Player player = event.getPlayer();
-      for (Npc<Instance, Player, ItemStack, Object> npc : this.npcTracker.trackedNpcs()) {
+      Position target = MinestomUtil.positionFromMinestom(to, event.getInstance());
+      Map<Npc<Instance, Player, ItemStack, Object>, Double> npcsInRange = new HashMap<>();
+      for (Npc<Instance, Player, ItemStack, Object> npc : this.npcTracker.trackedNpcs(event.getInstance())) {
         // check if the chunk of the npc is still loaded
-        Position pos = npc.position();
-        if (!npc.world().isChunkLoaded(pos.chunkX(), pos.chunkZ())) {
+        if (!this.isNpcActive(npc, MinestomActionController::isNpcChunkLoaded)) {
           // if the player is tracked by the npc, stop that
-          npc.stopTrackingPlayer(player);
+          this.hideNpc(player, npc);
           continue;
         }
 
         // check if the player moved in / out of any npc tracking distance
         double distance = MinestomUtil.distance(npc, to);
         if (distance > this.spawnDistance) {
-          // this will only do something if the player is already tracked by the npc
-          npc.stopTrackingPlayer(player);
+          this.hideNpc(player, npc);
           continue;
-        } else {
-          // this will only do something if the player is not already tracked by the npc
-          npc.trackPlayer(player);
         }
 
-        // check if we should rotate the npc towards the player
-        if (changedPosition
-          && npc.tracksPlayer(player)
-          && distance <= this.imitateDistance
-          && npc.flagValueOrDefault(Npc.LOOK_AT_PLAYER)) {
-          npc.lookAt(MinestomUtil.positionFromMinestom(to, event.getInstance())).schedule(player);
+        // check if we should rotate the npc towards the player, based on the level of detail for the distance
+        npcsInRange.put(npc, distance);
+        if (changedPosition) {
+          this.rotateNpcTowards(player, npc, target, distance);
         }
       }
+
+      // show the npcs in range to the player, respecting the visible npc limit
+      this.showNpcs(player, npcsInRange);
     }
   }
 
   private void handlePlayerInstanceSpawn(@NotNull PlayerSpawnEvent event) {
     // ensure that we stop tracking the player on NPCs which are not in the same world as the player
-    String instanceId = event.getSpawnInstance().getUniqueId().toString();
-    for (Npc<Instance, Player, ItemStack, Object> npc : this.npcTracker.trackedNpcs()) {
-      if (!npc.position().worldId().equals(instanceId)) {
-        // the player is no longer in the same world, stop tracking
-        npc.stopTrackingPlayer(event.getPlayer());
-        continue;
+    Player player = event.getPlayer();
+    Instance instance = event.getSpawnInstance();
+    Instance previousInstance = this.playerInstances.put(player, instance);
+    if (previousInstance != null) {
+      // the player is no longer in the same world as the npcs of the previous instance, stop tracking
+      if (previousInstance != instance) {
+        this.hideNpcs(player, this.npcTracker.trackedNpcs(previousInstance));
+      }
+    } else if (!event.isFirstSpawn()) {
+      // the previous instance is unknown (the player joined before this controller was created), check all npcs
+      List<Npc<Instance, Player, ItemStack, Object>> npcsInOtherInstances = new ArrayList<>();
+      for (Npc<Instance, Player, ItemStack, Object> npc : this.npcTracker.trackedNpcs()) {
+        if (npc.world() != instance) {
+          npcsInOtherInstances.add(npc);
+        }
       }
 
+      this.hideNpcs(player, npcsInOtherInstances);
+    }
+
+    Map<Npc<Instance, Player, ItemStack, Object>, Double> npcsInRange = new HashMap<>();
+    for (Npc<Instance, Player, ItemStack, Object> npc : this.npcTracker.trackedNpcs(instance)) {
       // the player is now in the same instance as the npc, check if we should track him
-      double distance = MinestomUtil.distance(npc, event.getPlayer().getPosition());
+      if (!this.isNpcActive(npc, MinestomActionController::isNpcChunkLoaded)) {
+        continue;
+      }
+
+      double distance = MinestomUtil.distance(npc, player.getPosition());
       if (this.spawnDistance >= distance) {
-        npc.trackPlayer(event.getPlayer());
+        npcsInRange.put(npc, distance);
       }
     }
+
+    // show the npcs in range to the player, respecting the visible npc limit
+    this.showNpcs(player, npcsInRange);
   }
 
   private void handleStartSneak(@NotNull PlayerStartSneakingEvent event) {
@@ -185,32 +233,27 @@ private void handleStopSneak(@NotNull PlayerStopSneakingEvent event) {
   }
 
   private void handleToggleSneak(@NotNull Player player, @NotNull Instance instance, boolean sneakActive) {
-    String instanceId = instance.getUniqueId().toString();
-    for (Npc<Instance, Player, ItemStack, Object> npc : this.npcTracker.trackedNpcs()) {
+    for (Npc<Instance, Player, ItemStack, Object> npc : this.npcTracker.trackedNpcs(instance)) {
       double distance = MinestomUtil.distance(npc, player.getPosition());
 
       // check if we should imitate the action
-      if (Objects.equals(instanceId, npc.position().worldId())
-        && npc.tracksPlayer(player)
+      if (npc.tracksPlayer(player)
         && distance <= this.imitateDistance
         && npc.flagValueOrDefault(Npc.SNEAK_WHEN_PLAYER_SNEAKS)) {
-        // let the npc sneak as well
-        npc.platform().packetFactory()
-          .createEntityMetaPacket(EntityMetadataFactory.sneakingMetaFactory(), sneakActive)
-          .schedule(player, npc);
+        // let the npc sneak as well, only for the player. sent through the metadata state of the npc to be
+        // ordered with other pending metadata changes
+        npc.changeMetadata(EntityMetadataFactory.sneakingMetaFactory(), sneakActive).schedule(player);
       }
     }
   }
 
   private void handleHandAnimation(@NotNull PlayerHandAnimationEvent event) {
     Player player = event.getPlayer();
-    String instanceId = event.getInstance().getUniqueId().toString();
-    for (Npc<Instance, Player, ItemStack, Object> npc : this.npcTracker.trackedNpcs()) {
+    for (Npc<Instance, Player, ItemStack, Object> npc : this.npcTracker.trackedNpcs(event.getInstance())) {
       double distance = MinestomUtil.distance(npc, player.getPosition());
 
       // check if we should imitate the action
-      if (Objects.equals(instanceId, npc.position().worldId())
-        && npc.tracksPlayer(player)
+      if (npc.tracksPlayer(player)
         && distance <= this.imitateDistance
         && npc.flagValueOrDefault(Npc.HIT_WHEN_PLAYER_HITS)) {
         // let the npc left click as well
@@ -220,12 +263,64 @@ private void handleHandAnimation(@NotNull PlayerHandAnimationEvent event) {
   }
 
   private void handleQuit(@NotNull PlayerDisconnectEvent event) {
-    for (Npc<Instance, Player, ItemStack, Object> npc : this.npcTracker.trackedNpcs()) {
-      // check if the npc tracks the player which disconnected and stop tracking him if so
-      npc.stopTrackingPlayer(event.getPlayer());
+    // only npcs in the instance of the player are able to track the player, the npcs of other instances
+    // were hidden when the player switched the instance
+    Player player = event.getPlayer();
+    Instance instance = player.getInstance();
+    this.playerInstances.remove(player);
+    Collection<Npc<Instance, Player, ItemStack, Object>> npcs = instance == null
+      ? this.npcTracker.trackedNpcs()
+      : this.npcTracker.trackedNpcs(instance);
+    handleNpcsQuit(npcs, player);
+
+    // remove the pending spawns of the player
+    this.handlePlayerQuit(event.getPlayer());
+  }
+
+  private void handleChunkLoad(@NotNull InstanceChunkLoadEvent event) {
+    List<Npc<Instance, Player, ItemStack, Object>> npcs = this.npcsInChunk(
+      event.getInstance(),
+      event.getChunkX(),
+      event.getChunkZ());
+    for (Npc<Instance, Player, ItemStack, Object> npc : npcs) {
+      this.activateNpc(npc);
     }
   }
 
+  private void handleChunkUnload(@NotNull InstanceChunkUnloadEvent event) {
+    List<Npc<Instance, Player, ItemStack, Object>> npcs = this.npcsInChunk(
+      event.getInstance(),
+      event.getChunkX(),
+      event.getChunkZ());
+    for (Npc<Instance, Player, ItemStack, Object> npc : npcs) {
+      this.deactivateNpc(npc);
+    }
+
+    // remove the states of npcs which are no longer tracked
+    this.removeUntrackedActivationStates(this.npcTracker);
+  }
+
+  private @NotNull List<Npc<Instance, Player, ItemStack, Object>> npcsInChunk(
+    @NotNull Instance instance,
+    int chunkX,
+    int chunkZ
+  ) {
+    List<Npc<Instance, Player, ItemStack, Object>> npcsInChunk = new ArrayList<>();
+    for (Npc<Instance, Player, ItemStack, Object> npc : this.npcTracker.trackedNpcs(instance)) {
+      Position pos = npc.position();
+      if (pos.chunkX() == chunkX && pos.chunkZ() == chunkZ) {
+        npcsInChunk.add(npc);
+      }
+    }
+
+    return npcsInChunk;
+  }
+
+  private static boolean isNpcChunkLoaded(@NotNull Npc<Instance, Player, ItemStack, Object> npc) {
+    Position pos = npc.position();
+    return npc.world().isChunkLoaded(pos.chunkX(), pos.chunkZ());
+  }
+
   private static final class MinestomActionControllerBuilder
     extends CommonNpcFlaggedBuilder<Builder>
     implements NpcActionController.Builder {
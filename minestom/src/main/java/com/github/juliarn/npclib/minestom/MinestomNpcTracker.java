@@ -0,0 +1,100 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.minestom;
+
+import com.github.juliarn.npclib.api.Npc;
+import com.github.juliarn.npclib.common.CommonNpcTracker;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import net.minestom.server.entity.Player;
+import net.minestom.server.event.EventFilter;
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.trait.InstanceEvent;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.item.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+public final class MinestomNpcTracker extends CommonNpcTracker<Instance, Player, ItemStack, Object> {
+
+  // the event nodes of the instances which contain at least one npc, guarded by the map itself
+  private final Map<Instance, EventNode<InstanceEvent>> instanceNodes = new HashMap<>();
+  private final List<Consumer<EventNode<InstanceEvent>>> nodeInitializers = new ArrayList<>();
+
+  private MinestomNpcTracker() {
+  }
+
+  public static @NotNull MinestomNpcTracker newNpcTracker() {
+    return new MinestomNpcTracker();
+  }
+
+  public void registerInstanceListeners(@NotNull Consumer<EventNode<InstanceEvent>> nodeInitializer) {
+    Objects.requireNonNull(nodeInitializer, "nodeInitializer");
+    synchronized (this.instanceNodes) {
+      this.nodeInitializers.add(nodeInitializer);
+
+      // apply the listeners to the nodes of the instances which already contain npcs
+      for (EventNode<InstanceEvent> node : this.instanceNodes.values()) {
+        nodeInitializer.accept(node);
+      }
+    }
+  }
+
+  @Override
+  public void trackNpc(@NotNull Npc<Instance, Player, ItemStack, Object> npc) {
+    super.trackNpc(npc);
+    this.updateInstanceNode(npc.world());
+  }
+
+  @Override
+  public void stopTrackingNpc(@NotNull Npc<Instance, Player, ItemStack, Object> npc) {
+    super.stopTrackingNpc(npc);
+    this.updateInstanceNode(npc.world());
+  }
+
+  private void updateInstanceNode(@NotNull Instance instance) {
+    synchronized (this.instanceNodes) {
+      boolean containsNpcs = !this.trackedNpcs(instance).isEmpty();
+      EventNode<InstanceEvent> node = this.instanceNodes.get(instance);
+      if (containsNpcs && node == null) {
+        // first npc in the instance, register the event node into the instance
+        node = EventNode.type("npc-lib", EventFilter.INSTANCE);
+        for (Consumer<EventNode<InstanceEvent>> nodeInitializer : this.nodeInitializers) {
+          nodeInitializer.accept(node);
+        }
+
+        instance.eventNode().addChild(node);
+        this.instanceNodes.put(instance, node);
+      } else if (!containsNpcs && node != null) {
+        // last npc in the instance, the instance doesn't need to call our listeners anymore
+        instance.eventNode().removeChild(node);
+        this.instanceNodes.remove(instance);
+      }
+    }
+  }
+}
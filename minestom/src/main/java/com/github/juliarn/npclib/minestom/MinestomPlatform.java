@@ -29,7 +29,9 @@
 import com.github.juliarn.npclib.common.platform.CommonPlatform;
 import com.github.juliarn.npclib.common.platform.CommonPlatformBuilder;
 import com.github.juliarn.npclib.minestom.protocol.MinestomProtocolAdapter;
+import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.Player;
+import net.minestom.server.event.player.PlayerDisconnectEvent;
 import net.minestom.server.instance.Instance;
 import net.minestom.server.item.ItemStack;
 import org.jetbrains.annotations.NotNull;
@@ -50,6 +52,11 @@ protected void prepareBuild() {
       this.taskManager = MinestomPlatformTaskManager.taskManager();
     }
 
+    // use a tracker which only registers listeners into instances which contain npcs
+    if (this.npcTracker == null) {
+      this.npcTracker = MinestomNpcTracker.newNpcTracker();
+    }
+
     // set the default version accessor
     if (this.versionAccessor == null) {
       this.versionAccessor = MinestomVersionAccessor.versionNameBased();
@@ -84,7 +91,7 @@ protected void prepareBuild() {
     }
 
     // build the platform
-    return new CommonPlatform<>(
+    CommonPlatform<Instance, Player, ItemStack, Object> platform = new CommonPlatform<>(
       this.debug,
       this.extension,
       this.logger,
@@ -96,5 +103,13 @@ protected void prepareBuild() {
       this.eventManager,
       this.worldAccessor,
       this.packetAdapter);
+
+    // release the player slots once the players quit. the npcs no longer report the player as tracked
+    // once the slot is released, delay it to ensure that all disconnect listeners were able to stop tracking
+    MinecraftServer.getGlobalEventHandler().addListener(PlayerDisconnectEvent.class, event -> {
+      Player player = event.getPlayer();
+      platform.taskManager().scheduleDelayedSync(() -> platform.playerRegistry().releaseSlot(player), 1);
+    });
+    return platform;
   }
 }
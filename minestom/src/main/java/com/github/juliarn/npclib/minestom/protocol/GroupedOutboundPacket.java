@@ -0,0 +1,74 @@
+/*
+ * This file is part of npc-lib, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2022-2023 Julian M., Pasqual K. and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.github.juliarn.npclib.minestom.protocol;
+
+import com.github.juliarn.npclib.api.Npc;
+import com.github.juliarn.npclib.api.protocol.OutboundPacket;
+import java.util.Collection;
+import net.minestom.server.entity.Player;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.item.ItemStack;
+import net.minestom.server.network.packet.server.ServerPacket;
+import net.minestom.server.utils.PacketUtils;
+import org.jetbrains.annotations.NotNull;
+
+@FunctionalInterface
+interface GroupedOutboundPacket extends OutboundPacket<Instance, Player, ItemStack, Object> {
+
+  @NotNull ServerPacket createPacket(@NotNull Npc<Instance, Player, ItemStack, Object> npc);
+
+  @Override
+  default void schedule(@NotNull Player player, @NotNull Npc<Instance, Player, ItemStack, Object> npc) {
+    player.sendPacket(this.createPacket(npc));
+  }
+
+  @Override
+  default void schedule(@NotNull Collection<Player> players, @NotNull Npc<Instance, Player, ItemStack, Object> npc) {
+    // create & serialize the packet only once for all players
+    if (!players.isEmpty()) {
+      PacketUtils.sendGroupedPacket(players, this.createPacket(npc));
+    }
+  }
+
+  default @NotNull OutboundPacket<Instance, Player, ItemStack, Object> andThen(@NotNull GroupedOutboundPacket next) {
+    GroupedOutboundPacket current = this;
+    return new OutboundPacket<>() {
+      @Override
+      public void schedule(@NotNull Player player, @NotNull Npc<Instance, Player, ItemStack, Object> npc) {
+        current.schedule(player, npc);
+        next.schedule(player, npc);
+      }
+
+      @Override
+      public void schedule(
+        @NotNull Collection<Player> players,
+        @NotNull Npc<Instance, Player, ItemStack, Object> npc
+      ) {
+        current.schedule(players, npc);
+        next.schedule(players, npc);
+      }
+    };
+  }
+}
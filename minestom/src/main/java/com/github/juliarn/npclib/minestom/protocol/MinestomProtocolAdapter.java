@@ -26,25 +26,34 @@
 
 import com.github.juliarn.npclib.api.Npc;
 import com.github.juliarn.npclib.api.Platform;
+import com.github.juliarn.npclib.api.PlatformTaskManager;
 import com.github.juliarn.npclib.api.PlatformVersionAccessor;
+import com.github.juliarn.npclib.api.Position;
 import com.github.juliarn.npclib.api.event.InteractNpcEvent;
-import com.github.juliarn.npclib.api.profile.ProfileProperty;
+import com.github.juliarn.npclib.api.profile.Profile;
 import com.github.juliarn.npclib.api.protocol.OutboundPacket;
 import com.github.juliarn.npclib.api.protocol.PlatformPacketAdapter;
 import com.github.juliarn.npclib.api.protocol.chat.Component;
 import com.github.juliarn.npclib.api.protocol.enums.EntityAnimation;
 import com.github.juliarn.npclib.api.protocol.enums.EntityPose;
 import com.github.juliarn.npclib.api.protocol.enums.ItemSlot;
+import com.github.juliarn.npclib.api.protocol.enums.PacketImportance;
 import com.github.juliarn.npclib.api.protocol.enums.PlayerInfoAction;
 import com.github.juliarn.npclib.api.protocol.meta.EntityMetadata;
 import com.github.juliarn.npclib.api.protocol.meta.EntityMetadataFactory;
 import com.github.juliarn.npclib.common.event.DefaultAttackNpcEvent;
 import com.github.juliarn.npclib.common.event.DefaultInteractNpcEvent;
+import com.github.juliarn.npclib.common.util.BoundedCache;
+import com.github.juliarn.npclib.common.util.EntityMetadataHelper;
+import com.github.juliarn.npclib.common.util.FutureHelper;
+import com.github.juliarn.npclib.common.util.NpcProfileHelper;
+import com.github.juliarn.npclib.common.util.ProfilePropertyCache;
+import com.github.juliarn.npclib.minestom.MinestomNpcTracker;
 import com.github.juliarn.npclib.minestom.util.MinestomUtil;
 import io.leangen.geantyref.TypeFactory;
 import java.lang.reflect.Type;
 import java.util.AbstractMap;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.EnumSet;
@@ -52,7 +61,10 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
@@ -64,10 +76,15 @@
 import net.minestom.server.entity.GameMode;
 import net.minestom.server.entity.Metadata;
 import net.minestom.server.entity.Player;
+import net.minestom.server.event.EventNode;
 import net.minestom.server.event.player.PlayerPacketEvent;
+import net.minestom.server.event.trait.InstanceEvent;
 import net.minestom.server.instance.Instance;
 import net.minestom.server.item.ItemStack;
 import net.minestom.server.network.packet.client.play.ClientInteractEntityPacket;
+import net.minestom.server.network.packet.server.CachedPacket;
+import net.minestom.server.network.packet.server.SendablePacket;
+import net.minestom.server.network.packet.server.ServerPacket;
 import net.minestom.server.network.packet.server.common.PluginMessagePacket;
 import net.minestom.server.network.packet.server.play.DestroyEntitiesPacket;
 import net.minestom.server.network.packet.server.play.EntityAnimationPacket;
@@ -94,6 +111,14 @@ public final class MinestomProtocolAdapter implements PlatformPacketAdapter<Inst
   private static final EnumMap<Player.Hand, InteractNpcEvent.Hand> HAND_CONVERTER;
   private static final EnumMap<EntityAnimation, EntityAnimationPacket.Animation> ANIMATION_CONVERTER;
 
+  // the converted components, the conversion requires parsing of the legacy text or json
+  private static final BoundedCache<Component, net.kyori.adventure.text.Component> COMPONENT_CACHE
+    = BoundedCache.boundedCache(512);
+  // the converted profile properties, textures shared between profiles are only converted once
+  private static final ProfilePropertyCache<PlayerInfoUpdatePacket.Property> PROPERTY_CACHE
+    = ProfilePropertyCache.propertyCache(
+    property -> new PlayerInfoUpdatePacket.Property(property.name(), property.value(), property.signature()));
+
   private static final Map<Type, Function<Object, Metadata.Entry<?>>> META_ENTRY_FACTORY;
   private static final Map<Type, Map.Entry<Type, UnaryOperator<Object>>> SERIALIZER_CONVERTERS;
 
@@ -164,15 +189,15 @@ public final class MinestomProtocolAdapter implements PlatformPacketAdapter<Inst
         value -> {
           //noinspection unchecked
           Optional<Component> optionalComponent = (Optional<Component>) value;
-          return optionalComponent.map(component -> {
+          return optionalComponent.map(component -> COMPONENT_CACHE.get(component, key -> {
             // build the component based on the given input
-            String rawMessage = component.rawMessage();
+            String rawMessage = key.rawMessage();
             if (rawMessage != null) {
               return LegacyComponentSerializer.legacySection().deserialize(rawMessage);
             } else {
-              return GsonComponentSerializer.gson().deserializeOrNull(component.encodedJsonMessage());
+              return GsonComponentSerializer.gson().deserializeOrNull(key.encodedJsonMessage());
             }
-          });
+          }));
         }
       ));
 
@@ -190,6 +215,9 @@ public final class MinestomProtocolAdapter implements PlatformPacketAdapter<Inst
       value -> Metadata.OptChat(((Optional<net.kyori.adventure.text.Component>) value).orElse(null)));
   }
 
+  // the cached spawn & player info packets of the npcs, weakly referenced to drop the packets of removed npcs
+  private final Map<Npc<?, ?, ?, ?>, NpcPacketCache> packetCaches = Collections.synchronizedMap(new WeakHashMap<>());
+
   private MinestomProtocolAdapter() {
   }
 
@@ -216,92 +244,99 @@ private MinestomProtocolAdapter() {
     return metaFactory.apply(value);
   }
 
+  private static @NotNull OutboundPacket<Instance, Player, ItemStack, Object> grouped(
+    @NotNull GroupedOutboundPacket packet
+  ) {
+    return packet;
+  }
+
+  private @NotNull NpcPacketCache packetCache(@NotNull Npc<?, ?, ?, ?> npc) {
+    return this.packetCaches.computeIfAbsent(npc, key -> new NpcPacketCache());
+  }
+
   @Override
   public @NotNull OutboundPacket<Instance, Player, ItemStack, Object> createEntitySpawnPacket() {
     return (player, npc) -> {
-      Pos position = MinestomUtil.minestomFromPosition(npc.position());
-      SpawnEntityPacket packet = new SpawnEntityPacket(
-        npc.entityId(),
-        npc.profile().uniqueId(),
-        EntityType.PLAYER.id(),
-        position,
-        0F,
-        0,
-        (short) 0,
-        (short) 0,
-        (short) 0);
+      // the spawn packet only changes when the position of the npc changes
+      SendablePacket packet = this.packetCache(npc).spawnPacket(npc.position(), () -> {
+        Pos position = MinestomUtil.minestomFromPosition(npc.position());
+        return new SpawnEntityPacket(
+          npc.entityId(),
+          npc.profile().uniqueId(),
+          EntityType.PLAYER.id(),
+          position,
+          0F,
+          0,
+          (short) 0,
+          (short) 0,
+          (short) 0);
+      });
       player.sendPacket(packet);
     };
   }
 
   @Override
   public @NotNull OutboundPacket<Instance, Player, ItemStack, Object> createEntityRemovePacket() {
-    return (player, npc) -> {
-      DestroyEntitiesPacket packet = new DestroyEntitiesPacket(npc.entityId());
-      player.sendPacket(packet);
-    };
+    return grouped(npc -> new DestroyEntitiesPacket(npc.entityId()));
   }
 
   @Override
   public @NotNull OutboundPacket<Instance, Player, ItemStack, Object> createPlayerInfoPacket(
     @NotNull PlayerInfoAction action
   ) {
-    return (player, npc) -> npc.settings().profileResolver().resolveNpcProfile(player, npc).thenAcceptAsync(profile -> {
-      if (action == PlayerInfoAction.REMOVE_PLAYER) {
-        // just remove the player from the tablist
-        PlayerInfoRemovePacket removePacket = new PlayerInfoRemovePacket(profile.uniqueId());
-        player.sendPacket(removePacket);
-        return;
-      }
-
-      // convert the profile properties
-      List<PlayerInfoUpdatePacket.Property> properties = new ArrayList<>();
-      for (ProfileProperty property : profile.properties()) {
-        PlayerInfoUpdatePacket.Property prop = new PlayerInfoUpdatePacket.Property(
-          property.name(),
-          property.value(),
-          property.signature());
-        properties.add(prop);
-      }
+    return (player, npc) -> {
+      CompletableFuture<Profile.Resolved> future = NpcProfileHelper.resolveProfile(npc, player);
+
+      // send the packet directly if the profile is already resolved, use the task manager of the platform otherwise
+      PlatformTaskManager taskManager = npc.platform().taskManager();
+      FutureHelper.acceptWhenDone(future, taskManager::scheduleAsync, profile -> {
+        if (action == PlayerInfoAction.REMOVE_PLAYER) {
+          // just remove the player from the tablist
+          PlayerInfoRemovePacket removePacket = new PlayerInfoRemovePacket(profile.uniqueId());
+          player.sendPacket(removePacket);
+          return;
+        }
 
-      // build the action
-      PlayerInfoUpdatePacket updatePacket = new PlayerInfoUpdatePacket(
-        ADD_ACTIONS,
-        Collections.singletonList(new PlayerInfoUpdatePacket.Entry(
-          profile.uniqueId(),
-          profile.name(),
-          properties,
-          false,
-          20,
-          GameMode.CREATIVE,
-          null,
-          null
-        )));
-      player.sendPacket(updatePacket);
-    });
+        // the player info packet only changes when the resolved profile changes
+        SendablePacket updatePacket = this.packetCache(npc).playerInfoPacket(profile, () -> {
+          // convert the profile properties
+          List<PlayerInfoUpdatePacket.Property> properties = PROPERTY_CACHE.convert(profile.properties());
+
+          // build the action
+          return new PlayerInfoUpdatePacket(
+            ADD_ACTIONS,
+            Collections.singletonList(new PlayerInfoUpdatePacket.Entry(
+              profile.uniqueId(),
+              profile.name(),
+              properties,
+              false,
+              20,
+              GameMode.CREATIVE,
+              null,
+              null
+            )));
+        });
+        player.sendPacket(updatePacket);
+      });
+    };
   }
 
   @Override
   public @NotNull OutboundPacket<Instance, Player, ItemStack, Object> createRotationPacket(float yaw, float pitch) {
-    return (player, npc) -> {
-      // head rotation (https://wiki.vg/Protocol#Entity_Head_Look) & rotation (https://wiki.vg/Protocol#Player_Rotation)
-      EntityHeadLookPacket headLookPacket = new EntityHeadLookPacket(npc.entityId(), yaw);
-      EntityRotationPacket rotationPacket = new EntityRotationPacket(npc.entityId(), yaw, pitch, true);
-
-      player.sendPackets(headLookPacket, rotationPacket);
-    };
+    // head rotation (https://wiki.vg/Protocol#Entity_Head_Look) & rotation (https://wiki.vg/Protocol#Player_Rotation)
+    GroupedOutboundPacket headLook = npc -> new EntityHeadLookPacket(npc.entityId(), yaw);
+    GroupedOutboundPacket rotation = npc -> new EntityRotationPacket(npc.entityId(), yaw, pitch, true);
+    return OutboundPacket.withImportance(PacketImportance.COSMETIC, headLook.andThen(rotation));
   }
 
   @Override
   public @NotNull OutboundPacket<Instance, Player, ItemStack, Object> createAnimationPacket(
     @NotNull EntityAnimation animation
   ) {
-    return (player, npc) -> {
-      EntityAnimationPacket.Animation convertedAnimation = ANIMATION_CONVERTER.get(animation);
-      EntityAnimationPacket packet = new EntityAnimationPacket(npc.entityId(), convertedAnimation);
-
-      player.sendPacket(packet);
-    };
+    EntityAnimationPacket.Animation convertedAnimation = ANIMATION_CONVERTER.get(animation);
+    return OutboundPacket.withImportance(
+      PacketImportance.COSMETIC,
+      grouped(npc -> new EntityAnimationPacket(npc.entityId(), convertedAnimation)));
   }
 
   @Override
@@ -309,15 +344,20 @@ private MinestomProtocolAdapter() {
     @NotNull ItemSlot slot,
     @NotNull ItemStack item
   ) {
-    return (player, npc) -> {
-      // get the meta of the item to send
-      EquipmentSlot equipmentSlot = ITEM_SLOT_CONVERTER.get(slot);
-      Map<EquipmentSlot, ItemStack> items = Collections.singletonMap(equipmentSlot, item);
+    return this.createEquipmentPacket(Collections.singletonMap(slot, item));
+  }
 
-      // send the packet
-      EntityEquipmentPacket packet = new EntityEquipmentPacket(npc.entityId(), items);
-      player.sendPacket(packet);
-    };
+  @Override
+  public @NotNull OutboundPacket<Instance, Player, ItemStack, Object> createEquipmentPacket(
+    @NotNull Map<ItemSlot, ItemStack> items
+  ) {
+    // convert the slots once, the packet can be re-used for all players
+    Map<EquipmentSlot, ItemStack> equipment = new EnumMap<>(EquipmentSlot.class);
+    for (Map.Entry<ItemSlot, ItemStack> entry : items.entrySet()) {
+      equipment.put(ITEM_SLOT_CONVERTER.get(entry.getKey()), entry.getValue());
+    }
+
+    return grouped(npc -> new EntityEquipmentPacket(npc.entityId(), equipment));
   }
 
   @Override
@@ -325,10 +365,7 @@ private MinestomProtocolAdapter() {
     @NotNull String channelId,
     byte[] payload
   ) {
-    return (player, npc) -> {
-      PluginMessagePacket packet = new PluginMessagePacket(channelId, payload);
-      player.sendPacket(packet);
-    };
+    return grouped(npc -> new PluginMessagePacket(channelId, payload));
   }
 
   @Override
@@ -337,35 +374,58 @@ private MinestomProtocolAdapter() {
     @NotNull T value
   ) {
     return (player, npc) -> {
-      // create the entity meta
+      // create the entity meta & send the available entries in one packet
       PlatformVersionAccessor versionAccessor = npc.platform().versionAccessor();
-      EntityMetadata<O> entityMetadata = metadata.create(value, versionAccessor);
+      List<EntityMetadata<?>> entityMetadata = EntityMetadataHelper.createAvailableMetadata(
+        metadata,
+        value,
+        versionAccessor);
+      this.createEntityMetaPacket(entityMetadata).schedule(player, npc);
+    };
+  }
 
-      // check if the meta is available
-      if (!entityMetadata.available()) {
-        return;
-      }
+  @Override
+  public @NotNull OutboundPacket<Instance, Player, ItemStack, Object> createEntityMetaPacket(
+    @NotNull Collection<EntityMetadata<?>> metadata
+  ) {
+    // check if there is anything to send
+    if (metadata.isEmpty()) {
+      return (player, npc) -> {
+      };
+    }
 
-      Map<Integer, Metadata.Entry<?>> metadataEntries = new HashMap<>();
+    // convert the entries once, the packet can be re-used for all players
+    Map<Integer, Metadata.Entry<?>> metadataEntries = new HashMap<>();
+    for (EntityMetadata<?> entityMetadata : metadata) {
       metadataEntries.put(entityMetadata.index(), createMetadataEntry(entityMetadata.type(), entityMetadata.value()));
+    }
 
-      // add all dependant metas
-      for (EntityMetadataFactory<T, Object> relatedMetadata : metadata.relatedMetadata()) {
-        EntityMetadata<Object> related = relatedMetadata.create(value, versionAccessor);
-        if (related.available()) {
-          metadataEntries.put(related.index(), createMetadataEntry(related.type(), related.value()));
-        }
-      }
+    return grouped(npc -> new EntityMetaDataPacket(npc.entityId(), metadataEntries));
+  }
 
-      // create & send the packet
-      EntityMetaDataPacket packet = new EntityMetaDataPacket(npc.entityId(), metadataEntries);
-      player.sendPacket(packet);
-    };
+  @Override
+  public boolean shouldSendCosmeticPackets(@NotNull Player player) {
+    // minestom does not shed cosmetic packets: the connections are not backed by netty channels and the
+    // amount of bytes pending to be written is not exposed, so there is no way to tell if a client can't keep up
+    return true;
   }
 
   @Override
   public void initialize(@NotNull Platform<Instance, Player, ItemStack, Object> platform) {
-    MinecraftServer.getGlobalEventHandler().addListener(PlayerPacketEvent.class, event -> {
+    // listen to the packets using an event listener, which keeps the packet listener of the server (and all
+    // other listeners) working. only listen in instances which contain npcs, if supported by the tracker
+    if (platform.npcTracker() instanceof MinestomNpcTracker tracker) {
+      tracker.registerInstanceListeners(node -> this.registerInteractListener(node, platform));
+    } else {
+      this.registerInteractListener(MinecraftServer.getGlobalEventHandler(), platform);
+    }
+  }
+
+  private void registerInteractListener(
+    @NotNull EventNode<? super InstanceEvent> node,
+    @NotNull Platform<Instance, Player, ItemStack, Object> platform
+  ) {
+    node.addListener(PlayerPacketEvent.class, event -> {
       // check if the inbound packet is USE_ENTITY, it's the only interesting for us
       if (event.getPacket() instanceof ClientInteractEntityPacket packet) {
         // get the associated npc from the tracked entities
@@ -388,4 +448,33 @@ public void initialize(@NotNull Platform<Instance, Player, ItemStack, Object> pl
       }
     });
   }
+
+  private static final class NpcPacketCache {
+
+    private Position spawnPosition;
+    private CachedPacket spawnPacket;
+
+    // the profile can be resolved differently for each player, cache the packet of each resolved profile
+    private final BoundedCache<Profile.Resolved, CachedPacket> playerInfoPackets = BoundedCache.boundedCache(16);
+
+    public synchronized @NotNull CachedPacket spawnPacket(
+      @NotNull Position position,
+      @NotNull Supplier<ServerPacket> packetFactory
+    ) {
+      // invalidate the cached packet if the position changed
+      if (this.spawnPacket == null || !position.equals(this.spawnPosition)) {
+        this.spawnPosition = position;
+        this.spawnPacket = new CachedPacket(packetFactory.get());
+      }
+
+      return this.spawnPacket;
+    }
+
+    public @NotNull CachedPacket playerInfoPacket(
+      @NotNull Profile.Resolved profile,
+      @NotNull Supplier<ServerPacket> packetFactory
+    ) {
+      return this.playerInfoPackets.get(profile, key -> new CachedPacket(packetFactory.get()));
+    }
+  }
 }
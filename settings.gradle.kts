@@ -22,6 +22,11 @@
  * THE SOFTWARE.
  */
 
+plugins {
+  // resolves the java toolchains (17 for the main sources, 21 for the multi-release sources) if they are missing
+  id("org.gradle.toolchains.foojay-resolver-convention") version "0.8.0"
+}
+
 enableFeaturePreview("TYPESAFE_PROJECT_ACCESSORS")
 enableFeaturePreview("STABLE_CONFIGURATION_CACHE")
 